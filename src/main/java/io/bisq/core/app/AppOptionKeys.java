@@ -7,6 +7,9 @@ public class AppOptionKeys {
     public static final String PROVIDERS = "providers";
     public static final String MAX_MEMORY = "maxMemory";
     public static final String DUMP_STATISTICS = "dumpStatistics";
+    public static final String DUMP_STATISTICS_INTERVAL = "dumpStatisticsInterval";
+    public static final String DUMP_STATISTICS_PER_MARKET = "dumpStatisticsPerMarket";
+    public static final String JOURNALED_TRADE_STORAGE = "journaledTradeStorage";
     public static final String IGNORE_DEV_MSG_KEY = "ignoreDevMsg";
     public static final String USE_DEV_PRIVILEGE_KEYS = "useDevPrivilegeKeys";
     public static final String USE_DEV_MODE = "useDevMode";
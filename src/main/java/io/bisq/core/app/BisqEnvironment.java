@@ -178,9 +178,10 @@ public class BisqEnvironment extends StandardEnvironment {
     protected List<String> bannedSeedNodes, bannedBtcNodes, bannedPriceRelayNodes;
 
     protected final String btcNodes, seedNodes, ignoreDevMsg, useDevPrivilegeKeys, useDevMode, useTorForBtc, rpcUser, rpcPassword,
-            rpcPort, rpcBlockNotificationPort, dumpBlockchainData, fullDaoNode,
-            myAddress, banList, dumpStatistics, maxMemory, socks5ProxyBtcAddress,
-            socks5ProxyHttpAddress, useAllProvidedNodes, numConnectionForBtc, genesisTxId, genesisBlockHeight;
+            rpcPort, rpcBlockNotificationPort, rpcMaxConnections, rpcBatchSize, dumpBlockchainData, fullDaoNode,
+            myAddress, banList, dumpStatistics, dumpStatisticsInterval, dumpStatisticsPerMarket, maxMemory, socks5ProxyBtcAddress,
+            socks5ProxyHttpAddress, journaledTradeStorage, useAllProvidedNodes, numConnectionForBtc, genesisTxId, genesisBlockHeight,
+            incrementalSnapshots;
 
 
     public BisqEnvironment(OptionSet options) {
@@ -221,6 +222,15 @@ public class BisqEnvironment extends StandardEnvironment {
         dumpStatistics = commandLineProperties.containsProperty(AppOptionKeys.DUMP_STATISTICS) ?
                 (String) commandLineProperties.getProperty(AppOptionKeys.DUMP_STATISTICS) :
                 "";
+        dumpStatisticsInterval = commandLineProperties.containsProperty(AppOptionKeys.DUMP_STATISTICS_INTERVAL) ?
+                (String) commandLineProperties.getProperty(AppOptionKeys.DUMP_STATISTICS_INTERVAL) :
+                "5";
+        dumpStatisticsPerMarket = commandLineProperties.containsProperty(AppOptionKeys.DUMP_STATISTICS_PER_MARKET) ?
+                (String) commandLineProperties.getProperty(AppOptionKeys.DUMP_STATISTICS_PER_MARKET) :
+                "false";
+        journaledTradeStorage = commandLineProperties.containsProperty(AppOptionKeys.JOURNALED_TRADE_STORAGE) ?
+                (String) commandLineProperties.getProperty(AppOptionKeys.JOURNALED_TRADE_STORAGE) :
+                "false";
         maxMemory = commandLineProperties.containsProperty(AppOptionKeys.MAX_MEMORY) ?
                 (String) commandLineProperties.getProperty(AppOptionKeys.MAX_MEMORY) :
                 "";
@@ -259,6 +269,12 @@ public class BisqEnvironment extends StandardEnvironment {
         rpcBlockNotificationPort = commandLineProperties.containsProperty(DaoOptionKeys.RPC_BLOCK_NOTIFICATION_PORT) ?
                 (String) commandLineProperties.getProperty(DaoOptionKeys.RPC_BLOCK_NOTIFICATION_PORT) :
                 "";
+        rpcMaxConnections = commandLineProperties.containsProperty(DaoOptionKeys.RPC_MAX_CONNECTIONS) ?
+                (String) commandLineProperties.getProperty(DaoOptionKeys.RPC_MAX_CONNECTIONS) :
+                "4";
+        rpcBatchSize = commandLineProperties.containsProperty(DaoOptionKeys.RPC_BATCH_SIZE) ?
+                (String) commandLineProperties.getProperty(DaoOptionKeys.RPC_BATCH_SIZE) :
+                "500";
         dumpBlockchainData = commandLineProperties.containsProperty(DaoOptionKeys.DUMP_BLOCKCHAIN_DATA) ?
                 (String) commandLineProperties.getProperty(DaoOptionKeys.DUMP_BLOCKCHAIN_DATA) :
                 "";
@@ -271,6 +287,9 @@ public class BisqEnvironment extends StandardEnvironment {
         genesisBlockHeight = commandLineProperties.containsProperty(DaoOptionKeys.GENESIS_BLOCK_HEIGHT) ?
                 (String) commandLineProperties.getProperty(DaoOptionKeys.GENESIS_BLOCK_HEIGHT) :
                 "";
+        incrementalSnapshots = commandLineProperties.containsProperty(DaoOptionKeys.INCREMENTAL_SNAPSHOTS) ?
+                (String) commandLineProperties.getProperty(DaoOptionKeys.INCREMENTAL_SNAPSHOTS) :
+                "false";
 
         btcNodes = commandLineProperties.containsProperty(BtcOptionKeys.BTC_NODES) ?
                 (String) commandLineProperties.getProperty(BtcOptionKeys.BTC_NODES) :
@@ -415,6 +434,9 @@ public class BisqEnvironment extends StandardEnvironment {
                 setProperty(AppOptionKeys.USE_DEV_PRIVILEGE_KEYS, useDevPrivilegeKeys);
                 setProperty(AppOptionKeys.USE_DEV_MODE, useDevMode);
                 setProperty(AppOptionKeys.DUMP_STATISTICS, dumpStatistics);
+                setProperty(AppOptionKeys.DUMP_STATISTICS_INTERVAL, dumpStatisticsInterval);
+                setProperty(AppOptionKeys.DUMP_STATISTICS_PER_MARKET, dumpStatisticsPerMarket);
+                setProperty(AppOptionKeys.JOURNALED_TRADE_STORAGE, journaledTradeStorage);
                 setProperty(AppOptionKeys.APP_NAME_KEY, appName);
                 setProperty(AppOptionKeys.MAX_MEMORY, maxMemory);
                 setProperty(AppOptionKeys.USER_DATA_DIR_KEY, userDataDir);
@@ -424,10 +446,13 @@ public class BisqEnvironment extends StandardEnvironment {
                 setProperty(DaoOptionKeys.RPC_PASSWORD, rpcPassword);
                 setProperty(DaoOptionKeys.RPC_PORT, rpcPort);
                 setProperty(DaoOptionKeys.RPC_BLOCK_NOTIFICATION_PORT, rpcBlockNotificationPort);
+                setProperty(DaoOptionKeys.RPC_MAX_CONNECTIONS, rpcMaxConnections);
+                setProperty(DaoOptionKeys.RPC_BATCH_SIZE, rpcBatchSize);
                 setProperty(DaoOptionKeys.DUMP_BLOCKCHAIN_DATA, dumpBlockchainData);
                 setProperty(DaoOptionKeys.FULL_DAO_NODE, fullDaoNode);
                 setProperty(DaoOptionKeys.GENESIS_TX_ID, genesisTxId);
                 setProperty(DaoOptionKeys.GENESIS_BLOCK_HEIGHT, genesisBlockHeight);
+                setProperty(DaoOptionKeys.INCREMENTAL_SNAPSHOTS, incrementalSnapshots);
 
                 setProperty(BtcOptionKeys.BTC_NODES, btcNodes);
                 setProperty(BtcOptionKeys.USE_TOR_FOR_BTC, useTorForBtc);
@@ -134,7 +134,22 @@ public abstract class BisqExecutable {
                 .withRequiredArg()
                 .ofType(boolean.class);
         parser.accepts(AppOptionKeys.DUMP_STATISTICS,
-                description("If set to true the trade statistics are stored as json file in the data dir.", false))
+                description("If set to true the trade statistics are stored as json file in the data dir. They are also " +
+                        "exported append-only to daily files in the trade_statistics directory.", false))
+                .withRequiredArg()
+                .ofType(boolean.class);
+        parser.accepts(AppOptionKeys.DUMP_STATISTICS_INTERVAL,
+                description("Min. interval in seconds between two dumps of the offers statistics and of the trade " +
+                        "statistics json file.", 5))
+                .withRequiredArg()
+                .ofType(long.class);
+        parser.accepts(AppOptionKeys.DUMP_STATISTICS_PER_MARKET,
+                description("If set to true the offers statistics are also stored as one json file per market.", false))
+                .withRequiredArg()
+                .ofType(boolean.class);
+        parser.accepts(AppOptionKeys.JOURNALED_TRADE_STORAGE,
+                description("If set to true changes of pending, closed and failed trades are appended to a journal " +
+                        "instead of rewriting the whole trade list.", false))
                 .withRequiredArg()
                 .ofType(boolean.class);
         parser.accepts(AppOptionKeys.PROVIDERS,
@@ -186,6 +201,13 @@ public abstract class BisqExecutable {
         parser.accepts(DaoOptionKeys.RPC_BLOCK_NOTIFICATION_PORT,
                 description("Bitcoind rpc port for block notifications", ""))
                 .withRequiredArg();
+        parser.accepts(DaoOptionKeys.RPC_MAX_CONNECTIONS,
+                description("Max. number of concurrent rpc connections used for requesting blocks and transactions", 4))
+                .withRequiredArg();
+        parser.accepts(DaoOptionKeys.RPC_BATCH_SIZE,
+                description("Max. number of transactions requested in one JSON-RPC batch request. " +
+                        "Set to 1 to request each transaction separately.", 500))
+                .withRequiredArg();
         parser.accepts(DaoOptionKeys.DUMP_BLOCKCHAIN_DATA,
                 description("If set to true the blockchain data from RPC requests to Bitcoin Core are stored " +
                         "as json file in the data dir.", false))
@@ -203,6 +225,11 @@ public abstract class BisqExecutable {
         parser.accepts(DaoOptionKeys.GENESIS_BLOCK_HEIGHT,
                 description("Genesis transaction block height when not using the hard coded one", ""))
                 .withRequiredArg();
+        parser.accepts(DaoOptionKeys.INCREMENTAL_SNAPSHOTS,
+                description("If set to true only the added blocks are appended to a block log instead of storing " +
+                        "the full BSQ blockchain every 10 blocks. A full snapshot is only stored every 1000 blocks.", false))
+                .withRequiredArg()
+                .ofType(boolean.class);
     }
 
     public static BisqEnvironment getBisqEnvironment(OptionSet options) {
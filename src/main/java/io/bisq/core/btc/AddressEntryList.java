@@ -29,21 +29,27 @@ import lombok.extern.slf4j.Slf4j;
 import org.bitcoinj.crypto.DeterministicKey;
 import org.bitcoinj.wallet.Wallet;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
  * The List supporting our persistence solution.
+ * <p>
+ * We keep indexes of the entries by context, offerId and address so lookups don't need to iterate the list. The
+ * entries are only added and removed by this class. The address of an entry is known once the wallet is ready.
  */
-@ToString
+@ToString(exclude = {"entriesByContext", "entriesByOfferId", "entriesByAddressString"})
 @Slf4j
 public final class AddressEntryList implements PersistableEnvelope, PersistedDataHost {
     transient private Storage<AddressEntryList> storage;
     transient private Wallet wallet;
     @Getter
     private List<AddressEntry> list;
+    // Ordered like the list. We use lists as the hashCode of an AddressEntry changes with coinLockedInMultiSig.
+    transient final private Map<AddressEntry.Context, List<AddressEntry>> entriesByContext = new EnumMap<>(AddressEntry.Context.class);
+    transient final private Map<String, List<AddressEntry>> entriesByOfferId = new HashMap<>();
+    transient final private Map<String, List<AddressEntry>> entriesByAddressString = new HashMap<>();
 
     @Inject
     public AddressEntryList(Storage<AddressEntryList> storage) {
@@ -53,8 +59,10 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
     @Override
     public void readPersisted() {
         AddressEntryList persisted = storage.initAndGetPersisted(this, 50);
-        if (persisted != null)
+        if (persisted != null) {
             list = new ArrayList<>(persisted.getList());
+            list.forEach(this::addToIndexes);
+        }
     }
 
 
@@ -93,6 +101,7 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
                 DeterministicKey keyFromPubHash = (DeterministicKey) wallet.findKeyFromPubHash(addressEntry.getPubKeyHash());
                 if (keyFromPubHash != null) {
                     addressEntry.setDeterministicKey(keyFromPubHash);
+                    addToAddressIndex(addressEntry);
                 } else {
                     log.error("Key from addressEntry not found in that wallet " + addressEntry.toString());
                 }
@@ -114,11 +123,24 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
     }
 
     private boolean add(AddressEntry addressEntry) {
-        return list.add(addressEntry);
+        boolean changed = list.add(addressEntry);
+        if (changed) {
+            addToIndexes(addressEntry);
+            addToAddressIndex(addressEntry);
+        }
+        return changed;
     }
 
     private boolean remove(AddressEntry addressEntry) {
-        return list.remove(addressEntry);
+        boolean changed = list.remove(addressEntry);
+        if (changed) {
+            removeFromIndex(entriesByContext, addressEntry.getContext(), addressEntry);
+            if (addressEntry.getOfferId() != null)
+                removeFromIndex(entriesByOfferId, addressEntry.getOfferId(), addressEntry);
+            if (addressEntry.getAddressString() != null)
+                removeFromIndex(entriesByAddressString, addressEntry.getAddressString(), addressEntry);
+        }
+        return changed;
     }
 
     public AddressEntry addAddressEntry(AddressEntry addressEntry) {
@@ -129,7 +151,7 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
     }
 
     public void swapTradeToSavings(String offerId) {
-        list.stream().filter(addressEntry -> offerId.equals(addressEntry.getOfferId()))
+        getAddressEntriesForOfferId(offerId).stream()
                 .findAny().ifPresent(this::swapToAvailable);
     }
 
@@ -147,4 +169,51 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
     public Stream<AddressEntry> stream() {
         return list.stream();
     }
+
+    // The returned lists are unmodifiable views of the indexes, so they must not be iterated while entries
+    // get added or removed.
+    public List<AddressEntry> getAddressEntries(AddressEntry.Context context) {
+        return Collections.unmodifiableList(entriesByContext.getOrDefault(context, Collections.emptyList()));
+    }
+
+    public List<AddressEntry> getAddressEntriesForOfferId(String offerId) {
+        return Collections.unmodifiableList(entriesByOfferId.getOrDefault(offerId, Collections.emptyList()));
+    }
+
+    public List<AddressEntry> getAddressEntriesForAddressString(String addressString) {
+        return Collections.unmodifiableList(entriesByAddressString.getOrDefault(addressString, Collections.emptyList()));
+    }
+
+    public Optional<AddressEntry> getAddressEntry(String offerId, AddressEntry.Context context) {
+        return getAddressEntriesForOfferId(offerId).stream()
+                .filter(e -> context == e.getContext())
+                .findAny();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void addToIndexes(AddressEntry addressEntry) {
+        entriesByContext.computeIfAbsent(addressEntry.getContext(), k -> new ArrayList<>()).add(addressEntry);
+        if (addressEntry.getOfferId() != null)
+            entriesByOfferId.computeIfAbsent(addressEntry.getOfferId(), k -> new ArrayList<>()).add(addressEntry);
+    }
+
+    // Only possible once the key of the entry is set
+    private void addToAddressIndex(AddressEntry addressEntry) {
+        final String addressString = addressEntry.getAddressString();
+        if (addressString != null)
+            entriesByAddressString.computeIfAbsent(addressString, k -> new ArrayList<>()).add(addressEntry);
+    }
+
+    private static <K> void removeFromIndex(Map<K, List<AddressEntry>> index, K key, AddressEntry addressEntry) {
+        final List<AddressEntry> entries = index.get(key);
+        if (entries != null) {
+            entries.remove(addressEntry);
+            if (entries.isEmpty())
+                index.remove(key);
+        }
+    }
 }
@@ -33,6 +33,7 @@ import javafx.collections.ObservableList;
 import lombok.extern.slf4j.Slf4j;
 import org.bitcoinj.core.*;
 import org.bitcoinj.script.Script;
+import org.bitcoinj.utils.Threading;
 import org.bitcoinj.wallet.CoinSelection;
 import org.bitcoinj.wallet.SendRequest;
 import org.bitcoinj.wallet.Wallet;
@@ -81,6 +82,8 @@ public class BsqWalletService extends WalletService implements BsqBlockChainList
                 if (wallet != null) {
                     wallet.setCoinSelector(bsqCoinSelector);
                     wallet.addEventListener(walletEventListener);
+                    //noinspection deprecation
+                    wallet.addEventListener(walletTransactionIndexListener, Threading.SAME_THREAD);
 
                     //noinspection deprecation
                     wallet.addEventListener(new AbstractWalletEventListener() {
@@ -31,6 +31,7 @@ import org.bitcoinj.core.*;
 import org.bitcoinj.crypto.DeterministicKey;
 import org.bitcoinj.crypto.KeyCrypterScrypt;
 import org.bitcoinj.script.ScriptBuilder;
+import org.bitcoinj.utils.Threading;
 import org.bitcoinj.wallet.SendRequest;
 import org.bitcoinj.wallet.Wallet;
 import org.jetbrains.annotations.NotNull;
@@ -70,6 +71,8 @@ public class BtcWalletService extends WalletService {
         walletsSetup.addSetupCompletedHandler(() -> {
             wallet = walletsSetup.getBtcWallet();
             wallet.addEventListener(walletEventListener);
+            //noinspection deprecation
+            wallet.addEventListener(walletTransactionIndexListener, Threading.SAME_THREAD);
 
             walletsSetup.getChain().addNewBestBlockListener(block -> chainHeightProperty.set(block.getHeight()));
             chainHeightProperty.set(walletsSetup.getChain().getBestChainHeight());
@@ -393,17 +396,11 @@ public class BtcWalletService extends WalletService {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public Optional<AddressEntry> getAddressEntry(String offerId, @SuppressWarnings("SameParameterValue") AddressEntry.Context context) {
-        return getAddressEntryListAsImmutableList().stream()
-                .filter(e -> offerId.equals(e.getOfferId()))
-                .filter(e -> context == e.getContext())
-                .findAny();
+        return addressEntryList.getAddressEntry(offerId, context);
     }
 
     public AddressEntry getOrCreateAddressEntry(String offerId, AddressEntry.Context context) {
-        Optional<AddressEntry> addressEntry = getAddressEntryListAsImmutableList().stream()
-                .filter(e -> offerId.equals(e.getOfferId()))
-                .filter(e -> context == e.getContext())
-                .findAny();
+        Optional<AddressEntry> addressEntry = addressEntryList.getAddressEntry(offerId, context);
         if (addressEntry.isPresent()) {
             return addressEntry.get();
         } else {
@@ -415,15 +412,13 @@ public class BtcWalletService extends WalletService {
     }
 
     public AddressEntry getOrCreateAddressEntry(AddressEntry.Context context) {
-        Optional<AddressEntry> addressEntry = getAddressEntryListAsImmutableList().stream()
-                .filter(e -> context == e.getContext())
+        Optional<AddressEntry> addressEntry = addressEntryList.getAddressEntries(context).stream()
                 .findAny();
         return getOrCreateAddressEntry(context, addressEntry);
     }
 
     public AddressEntry getOrCreateUnusedAddressEntry(AddressEntry.Context context) {
-        Optional<AddressEntry> addressEntry = getAddressEntryListAsImmutableList().stream()
-                .filter(e -> context == e.getContext())
+        Optional<AddressEntry> addressEntry = addressEntryList.getAddressEntries(context).stream()
                 .filter(e -> getNumTxOutputsForAddress(e.getAddress()) == 0)
                 .findAny();
         return getOrCreateAddressEntry(context, addressEntry);
@@ -440,36 +435,30 @@ public class BtcWalletService extends WalletService {
     }
 
     private Optional<AddressEntry> findAddressEntry(String address, AddressEntry.Context context) {
-        return getAddressEntryListAsImmutableList().stream()
-                .filter(e -> address.equals(e.getAddressString()))
+        return addressEntryList.getAddressEntriesForAddressString(address).stream()
                 .filter(e -> context == e.getContext())
                 .findAny();
     }
 
     public List<AddressEntry> getAvailableAddressEntries() {
-        return getAddressEntryListAsImmutableList().stream()
-                .filter(addressEntry -> AddressEntry.Context.AVAILABLE == addressEntry.getContext())
-                .collect(Collectors.toList());
+        return getAddressEntries(AddressEntry.Context.AVAILABLE);
     }
 
     public List<AddressEntry> getAddressEntriesForOpenOffer() {
-        return getAddressEntryListAsImmutableList().stream()
-                .filter(addressEntry -> AddressEntry.Context.OFFER_FUNDING == addressEntry.getContext() ||
-                        AddressEntry.Context.RESERVED_FOR_TRADE == addressEntry.getContext())
-                .collect(Collectors.toList());
+        return getAddressEntries(AddressEntry.Context.OFFER_FUNDING, AddressEntry.Context.RESERVED_FOR_TRADE);
     }
 
     public List<AddressEntry> getAddressEntriesForTrade() {
-        return getAddressEntryListAsImmutableList().stream()
-                .filter(addressEntry -> AddressEntry.Context.MULTI_SIG == addressEntry.getContext() ||
-                        AddressEntry.Context.TRADE_PAYOUT == addressEntry.getContext())
-                .collect(Collectors.toList());
+        return getAddressEntries(AddressEntry.Context.MULTI_SIG, AddressEntry.Context.TRADE_PAYOUT);
     }
 
-    public List<AddressEntry> getAddressEntries(AddressEntry.Context context) {
-        return getAddressEntryListAsImmutableList().stream()
-                .filter(addressEntry -> context == addressEntry.getContext())
-                .collect(Collectors.toList());
+    // Returns a copy of the matching entries only, so the caller can add or remove entries while iterating
+    public List<AddressEntry> getAddressEntries(AddressEntry.Context... contexts) {
+        List<AddressEntry> addressEntries = new ArrayList<>();
+        for (AddressEntry.Context context : contexts) {
+            addressEntries.addAll(addressEntryList.getAddressEntries(context));
+        }
+        return addressEntries;
     }
 
     public List<AddressEntry> getFundedAvailableAddressEntries() {
@@ -483,10 +472,7 @@ public class BtcWalletService extends WalletService {
     }
 
     public void swapTradeEntryToAvailableEntry(String offerId, AddressEntry.Context context) {
-        Optional<AddressEntry> addressEntryOptional = getAddressEntryListAsImmutableList().stream()
-                .filter(e -> offerId.equals(e.getOfferId()))
-                .filter(e -> context == e.getContext())
-                .findAny();
+        Optional<AddressEntry> addressEntryOptional = addressEntryList.getAddressEntry(offerId, context);
         addressEntryOptional.ifPresent(e -> {
             log.info("swap addressEntry with address {} and offerId {} from context {} to available",
                     e.getAddressString(), e.getOfferId(), context);
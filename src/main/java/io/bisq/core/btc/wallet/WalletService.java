@@ -74,6 +74,9 @@ public abstract class WalletService {
     protected final CopyOnWriteArraySet<AddressConfidenceListener> addressConfidenceListeners = new CopyOnWriteArraySet<>();
     protected final CopyOnWriteArraySet<TxConfidenceListener> txConfidenceListeners = new CopyOnWriteArraySet<>();
     protected final CopyOnWriteArraySet<BalanceListener> balanceListeners = new CopyOnWriteArraySet<>();
+    private final WalletTransactionIndex walletTransactionIndex = new WalletTransactionIndex();
+    // Added with Threading.SAME_THREAD so that the index gets invalidated before the wallet lock is released
+    protected final WalletEventListener walletTransactionIndexListener = walletTransactionIndex.getInvalidationListener();
     protected Wallet wallet;
     protected KeyParameter aesKey;
     @Getter
@@ -101,9 +104,12 @@ public abstract class WalletService {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public void shutDown() {
-        if (wallet != null)
+        if (wallet != null) {
             //noinspection deprecation
             wallet.removeEventListener(walletEventListener);
+            //noinspection deprecation
+            wallet.removeEventListener(walletTransactionIndexListener);
+        }
     }
 
 
@@ -311,12 +317,10 @@ public abstract class WalletService {
     @Nullable
     public TransactionConfidence getConfidenceForAddress(Address address) {
         List<TransactionConfidence> transactionConfidenceList = new ArrayList<>();
-        if (wallet != null) {
-            Set<Transaction> transactions = wallet.getTransactions(false);
-            if (transactions != null) {
-                transactionConfidenceList.addAll(transactions.stream().map(tx ->
-                        getTransactionConfidence(tx, address)).collect(Collectors.toList()));
-            }
+        if (wallet != null && address != null) {
+            transactionConfidenceList.addAll(walletTransactionIndex.getTransactions(wallet, address).stream()
+                    .map(Transaction::getConfidence)
+                    .collect(Collectors.toList()));
         }
         return getMostRecentConfidence(transactionConfidenceList);
     }
@@ -324,11 +328,9 @@ public abstract class WalletService {
     @Nullable
     public TransactionConfidence getConfidenceForTxId(String txId) {
         if (wallet != null) {
-            Set<Transaction> transactions = wallet.getTransactions(false);
-            for (Transaction tx : transactions) {
-                if (tx.getHashAsString().equals(txId))
-                    return tx.getConfidence();
-            }
+            Transaction tx = walletTransactionIndex.getTransaction(wallet, txId);
+            if (tx != null)
+                return tx.getConfidence();
         }
         return null;
     }
@@ -396,7 +398,7 @@ public abstract class WalletService {
     }
 
     public Coin getBalanceForAddress(Address address) {
-        return wallet != null ? getBalance(wallet.calculateAllSpendCandidates(), address) : Coin.ZERO;
+        return wallet != null && address != null ? walletTransactionIndex.getBalance(wallet, address) : Coin.ZERO;
     }
 
     protected Coin getBalance(List<TransactionOutput> transactionOutputs, Address address) {
@@ -415,16 +417,7 @@ public abstract class WalletService {
     }
 
     public int getNumTxOutputsForAddress(Address address) {
-        List<TransactionOutput> transactionOutputs = new ArrayList<>();
-        wallet.getTransactions(false).stream().forEach(t -> transactionOutputs.addAll(t.getOutputs()));
-        int outputs = 0;
-        for (TransactionOutput output : transactionOutputs) {
-            if (isOutputScriptConvertibleToAddress(output) &&
-                    address != null &&
-                    address.equals(getAddressFromOutput(output)))
-                outputs++;
-        }
-        return outputs;
+        return address != null ? walletTransactionIndex.getNumTxOutputs(wallet, address) : 0;
     }
 
     public Coin getTxFeeForWithdrawalPerByte() {
@@ -0,0 +1,171 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.btc.wallet;
+
+import org.bitcoinj.core.Address;
+import org.bitcoinj.core.Coin;
+import org.bitcoinj.core.Transaction;
+import org.bitcoinj.core.TransactionConfidence;
+import org.bitcoinj.core.TransactionInput;
+import org.bitcoinj.core.TransactionOutput;
+import org.bitcoinj.wallet.Wallet;
+import org.bitcoinj.wallet.listeners.AbstractWalletEventListener;
+import org.bitcoinj.wallet.listeners.WalletEventListener;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Index of the wallet transactions and spend candidates by address, so that lookups per address don't need to
+ * iterate all transactions of the wallet.
+ * <p>
+ * The index gets invalidated by the wallet events and rebuilt with one pass over the wallet at the next lookup.
+ * Invalidation only increments a version and does not take the lock of the index, so it can be called from a wallet
+ * listener which runs in the wallet thread while holding the wallet lock. That way a lookup never returns a state
+ * older than the wallet.
+ * <p>
+ * Transactions are only added or removed at coins received/sent and reorganize events or if they become dead. The
+ * spend candidates depend also on the confidence of the transactions.
+ */
+class WalletTransactionIndex {
+    private final AtomicLong txsVersion = new AtomicLong();
+    private final AtomicLong balancesVersion = new AtomicLong();
+    @SuppressWarnings("deprecation")
+    private final WalletEventListener invalidationListener = new AbstractWalletEventListener() {
+        @Override
+        public void onCoinsReceived(Wallet wallet, Transaction tx, Coin prevBalance, Coin newBalance) {
+            invalidateTxs();
+        }
+
+        @Override
+        public void onCoinsSent(Wallet wallet, Transaction tx, Coin prevBalance, Coin newBalance) {
+            invalidateTxs();
+        }
+
+        @Override
+        public void onReorganize(Wallet wallet) {
+            invalidateTxs();
+        }
+
+        @Override
+        public void onTransactionConfidenceChanged(Wallet wallet, Transaction tx) {
+            // Dead transactions are not part of the index
+            if (tx.getConfidence().getConfidenceType() == TransactionConfidence.ConfidenceType.DEAD)
+                invalidateTxs();
+            else
+                invalidateBalances();
+        }
+    };
+
+    // Guarded by this
+    private long indexedTxsVersion = -1;
+    private final Map<String, Transaction> txsById = new HashMap<>();
+    // Transactions having an output or a connected output to the address
+    private final Map<Address, Set<Transaction>> txsByAddress = new HashMap<>();
+    private final Map<Address, Integer> numTxOutputsByAddress = new HashMap<>();
+    private long indexedBalancesVersion = -1;
+    private final Map<Address, Coin> balanceByAddress = new HashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Invalidation
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Needs to be added to the wallet with Threading.SAME_THREAD
+    WalletEventListener getInvalidationListener() {
+        return invalidationListener;
+    }
+
+    void invalidateTxs() {
+        txsVersion.incrementAndGet();
+        balancesVersion.incrementAndGet();
+    }
+
+    void invalidateBalances() {
+        balancesVersion.incrementAndGet();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Lookups
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Returns a copy as the index might get rebuilt by another thread
+    synchronized List<Transaction> getTransactions(Wallet wallet, Address address) {
+        updateTxs(wallet);
+        return new ArrayList<>(txsByAddress.getOrDefault(address, Collections.emptySet()));
+    }
+
+    @Nullable
+    synchronized Transaction getTransaction(Wallet wallet, String txId) {
+        updateTxs(wallet);
+        return txsById.get(txId);
+    }
+
+    synchronized int getNumTxOutputs(Wallet wallet, Address address) {
+        updateTxs(wallet);
+        return numTxOutputsByAddress.getOrDefault(address, 0);
+    }
+
+    synchronized Coin getBalance(Wallet wallet, Address address) {
+        final long version = balancesVersion.get();
+        if (version != indexedBalancesVersion) {
+            balanceByAddress.clear();
+            for (TransactionOutput output : wallet.calculateAllSpendCandidates()) {
+                final Address outputAddress = WalletService.getAddressFromOutput(output);
+                if (outputAddress != null)
+                    balanceByAddress.merge(outputAddress, output.getValue(), Coin::add);
+            }
+            indexedBalancesVersion = version;
+        }
+        return balanceByAddress.getOrDefault(address, Coin.ZERO);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // We read the version before we read the wallet, so a change during the rebuild triggers another rebuild
+    private void updateTxs(Wallet wallet) {
+        final long version = txsVersion.get();
+        if (version != indexedTxsVersion) {
+            txsById.clear();
+            txsByAddress.clear();
+            numTxOutputsByAddress.clear();
+            for (Transaction tx : wallet.getTransactions(false)) {
+                txsById.put(tx.getHashAsString(), tx);
+                for (TransactionOutput output : tx.getOutputs()) {
+                    final Address address = WalletService.getAddressFromOutput(output);
+                    if (address != null) {
+                        txsByAddress.computeIfAbsent(address, k -> new HashSet<>()).add(tx);
+                        numTxOutputsByAddress.merge(address, 1, Integer::sum);
+                    }
+                }
+                tx.getInputs().stream()
+                        .map(TransactionInput::getConnectedOutput)
+                        .filter(Objects::nonNull)
+                        .map(WalletService::getAddressFromOutput)
+                        .filter(Objects::nonNull)
+                        .forEach(address -> txsByAddress.computeIfAbsent(address, k -> new HashSet<>()).add(tx));
+            }
+            indexedTxsVersion = version;
+        }
+    }
+}
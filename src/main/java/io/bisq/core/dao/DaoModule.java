@@ -92,10 +92,16 @@ public class DaoModule extends AppModule {
         bindConstant().annotatedWith(named(DaoOptionKeys.RPC_PORT)).to(environment.getRequiredProperty(DaoOptionKeys.RPC_PORT));
         bindConstant().annotatedWith(named(DaoOptionKeys.RPC_BLOCK_NOTIFICATION_PORT))
                 .to(environment.getRequiredProperty(DaoOptionKeys.RPC_BLOCK_NOTIFICATION_PORT));
+        bindConstant().annotatedWith(named(DaoOptionKeys.RPC_MAX_CONNECTIONS))
+                .to(environment.getRequiredProperty(DaoOptionKeys.RPC_MAX_CONNECTIONS));
+        bindConstant().annotatedWith(named(DaoOptionKeys.RPC_BATCH_SIZE))
+                .to(environment.getRequiredProperty(DaoOptionKeys.RPC_BATCH_SIZE));
         bindConstant().annotatedWith(named(DaoOptionKeys.DUMP_BLOCKCHAIN_DATA))
                 .to(environment.getRequiredProperty(DaoOptionKeys.DUMP_BLOCKCHAIN_DATA));
         bindConstant().annotatedWith(named(DaoOptionKeys.FULL_DAO_NODE))
                 .to(environment.getRequiredProperty(DaoOptionKeys.FULL_DAO_NODE));
+        bindConstant().annotatedWith(named(DaoOptionKeys.INCREMENTAL_SNAPSHOTS))
+                .to(environment.getRequiredProperty(DaoOptionKeys.INCREMENTAL_SNAPSHOTS));
 
         String genesisTxId = environment.getProperty(DaoOptionKeys.GENESIS_TX_ID, String.class, BsqBlockChain.BTC_GENESIS_TX_ID);
         bind(String.class).annotatedWith(Names.named(DaoOptionKeys.GENESIS_TX_ID)).toInstance(genesisTxId);
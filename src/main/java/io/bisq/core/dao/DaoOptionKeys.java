@@ -8,9 +8,12 @@ public class DaoOptionKeys {
     public static final String RPC_PASSWORD = "rpcPassword";
     public static final String RPC_PORT = "rpcPort";
     public static final String RPC_BLOCK_NOTIFICATION_PORT = "rpcBlockNotificationPort";
+    public static final String RPC_MAX_CONNECTIONS = "rpcMaxConnections";
+    public static final String RPC_BATCH_SIZE = "rpcBatchSize";
 
     public static final String DUMP_BLOCKCHAIN_DATA = "dumpBlockchainData";
     public static final String FULL_DAO_NODE = "fullDaoNode";
     public static final String GENESIS_TX_ID = "genesisTxId";
     public static final String GENESIS_BLOCK_HEIGHT = "genesisBlockHeight";
+    public static final String INCREMENTAL_SNAPSHOTS = "incrementalSnapshots";
 }
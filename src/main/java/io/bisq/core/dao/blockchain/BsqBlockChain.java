@@ -17,6 +17,7 @@
 
 package io.bisq.core.dao.blockchain;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.protobuf.Message;
 import io.bisq.common.proto.persistable.PersistableEnvelope;
 import io.bisq.common.util.FunctionalReadWriteLock;
@@ -24,6 +25,7 @@ import io.bisq.common.util.Tuple2;
 import io.bisq.core.dao.DaoOptionKeys;
 import io.bisq.core.dao.blockchain.vo.BsqBlock;
 import io.bisq.core.dao.blockchain.vo.Tx;
+import io.bisq.core.dao.blockchain.vo.TxInput;
 import io.bisq.core.dao.blockchain.vo.TxOutput;
 import io.bisq.core.dao.blockchain.vo.TxType;
 import io.bisq.core.dao.blockchain.vo.util.TxIdIndexTuple;
@@ -35,6 +37,7 @@ import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Named;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -92,6 +95,33 @@ public class BsqBlockChain implements PersistableEnvelope, WritableBsqBlockChain
     private final Map<String, Tx> txMap;
     private final Map<TxIdIndexTuple, TxOutput> unspentTxOutputsMap;
 
+    // Random access to the blocks by height. Not persisted but derived from bsqBlocks.
+    transient private final NavigableMap<Integer, BsqBlock> bsqBlocksByHeight = new TreeMap<>();
+
+    // Secondary indices of the unspentTxOutputsMap. Not persisted but derived from unspentTxOutputsMap.
+    transient private final Map<String, Set<TxIdIndexTuple>> unspentTxOutputsByAddress = new HashMap<>();
+    transient private final Map<Integer, Set<TxIdIndexTuple>> unspentTxOutputsByBlockHeight = new HashMap<>();
+    transient private final Map<String, Integer> numUnspentTxOutputsByTxId = new HashMap<>();
+
+    // Incrementally maintained views. Not persisted but derived from txMap and unspentTxOutputsMap.
+    transient private final Map<TxIdIndexTuple, TxOutput> spentTxOutputsMap = new HashMap<>();
+    transient private final Map<String, Tx> feeTxMap = new HashMap<>();
+
+    // Immutable snapshots of the views handed out to clients. Reset at any change of the underlying view.
+    // Created lazily under the read lock, so concurrent readers might create them both. As the view cannot change
+    // while the read lock is held, both are equal and it does not matter which one wins. Volatile to publish the
+    // snapshot safely to the other readers.
+    @Nullable
+    transient private volatile Set<TxOutput> unspentTxOutputsSnapshot;
+    @Nullable
+    transient private volatile Set<TxOutput> spentTxOutputsSnapshot;
+    @Nullable
+    transient private volatile Set<Tx> feeTransactionsSnapshot;
+
+    // Blocks in the reset state as delivered to lite nodes. Once a block is added that state does not change anymore.
+    // Only filled on full nodes serving lite nodes. Accessed under read lock from different threads.
+    transient private final Map<Integer, PB.BsqBlock> resetBsqBlockProtoCache = new ConcurrentHashMap<>();
+
     // not impl in PB yet
     private final Set<Tuple2<Long, Integer>> compensationRequestFees;
     private final Set<Tuple2<Long, Integer>> votingFees;
@@ -148,6 +178,8 @@ public class BsqBlockChain implements PersistableEnvelope, WritableBsqBlockChain
 
         lock = new FunctionalReadWriteLock(true);
 
+        buildViews();
+
         // TODO not impl yet in PB
         compensationRequestFees = new HashSet<>();
         votingFees = new HashSet<>();
@@ -224,11 +256,51 @@ public class BsqBlockChain implements PersistableEnvelope, WritableBsqBlockChain
             unspentTxOutputsMap.clear();
             unspentTxOutputsMap.putAll(snapshot.unspentTxOutputsMap);
 
+            buildViews();
+            resetBsqBlockProtoCache.clear();
+
             chainHeadHeight = snapshot.chainHeadHeight;
             genesisTx = snapshot.genesisTx;
         });
     }
 
+    // Replays blocks which got persisted at the time they have been added (see BsqBlockLog). The state of the txs in
+    // the blocks reflect the state at that time, so outputs spent in later blocks are still marked as unspent. We
+    // update those when we replay the block with the spending tx.
+    @Override
+    public void applyBlocks(List<BsqBlock> blocks) {
+        lock.write(() -> {
+            for (BsqBlock bsqBlock : blocks) {
+                for (Tx tx : bsqBlock.getTxs()) {
+                    for (TxInput input : tx.getInputs()) {
+                        final TxOutput connectedTxOutput = input.getConnectedTxOutput();
+                        if (connectedTxOutput != null) {
+                            final TxOutput spentTxOutput = unspentTxOutputsMap.remove(connectedTxOutput.getTxIdIndexTuple());
+                            if (spentTxOutput != null) {
+                                spentTxOutput.setUnspent(false);
+                                spentTxOutput.setSpentInfo(connectedTxOutput.getSpentInfo());
+                                input.setConnectedTxOutput(spentTxOutput);
+                            }
+                        }
+                    }
+
+                    txMap.put(tx.getId(), tx);
+                    tx.getOutputs().stream()
+                            .filter(txOutput -> txOutput.isVerified() && txOutput.isUnspent())
+                            .forEach(txOutput -> unspentTxOutputsMap.put(txOutput.getTxIdIndexTuple(), txOutput));
+
+                    if (tx.getId().equals(genesisTxId))
+                        genesisTx = tx;
+                }
+                bsqBlocks.add(bsqBlock);
+                chainHeadHeight = bsqBlock.getHeight();
+            }
+
+            buildViews();
+            resetBsqBlockProtoCache.clear();
+        });
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Write access: BsqBlock
@@ -238,7 +310,14 @@ public class BsqBlockChain implements PersistableEnvelope, WritableBsqBlockChain
     public void addBlock(BsqBlock bsqBlock) {
         lock.write(() -> {
             bsqBlocks.add(bsqBlock);
+            bsqBlocksByHeight.put(bsqBlock.getHeight(), bsqBlock);
             chainHeadHeight = bsqBlock.getHeight();
+
+            resetBsqBlockProtoCache.remove(bsqBlock.getHeight());
+
+            // The burnt fee is set after the tx got added to the txMap, so we update the fee view once the block
+            // is complete.
+            bsqBlock.getTxs().forEach(this::updateFeeTxView);
             printDetails();
             listeners.forEach(l -> l.onBlockAdded(bsqBlock));
         });
@@ -256,7 +335,10 @@ public class BsqBlockChain implements PersistableEnvelope, WritableBsqBlockChain
 
     @Override
     public void addTxToMap(Tx tx) {
-        lock.write(() -> txMap.put(tx.getId(), tx));
+        lock.write(() -> {
+            txMap.put(tx.getId(), tx);
+            updateFeeTxView(tx);
+        });
     }
 
 
@@ -269,12 +351,22 @@ public class BsqBlockChain implements PersistableEnvelope, WritableBsqBlockChain
         lock.write(() -> {
             checkArgument(txOutput.isVerified(), "txOutput must be verified at addUnspentTxOutput");
             unspentTxOutputsMap.put(txOutput.getTxIdIndexTuple(), txOutput);
+            addToUnspentTxOutputIndices(txOutput);
+            unspentTxOutputsSnapshot = null;
         });
     }
 
     @Override
     public void removeUnspentTxOutput(TxOutput txOutput) {
-        lock.write(() -> unspentTxOutputsMap.remove(txOutput.getTxIdIndexTuple()));
+        lock.write(() -> {
+            final TxOutput removed = unspentTxOutputsMap.remove(txOutput.getTxIdIndexTuple());
+            if (removed != null) {
+                removeFromUnspentTxOutputIndices(removed);
+                spentTxOutputsMap.put(removed.getTxIdIndexTuple(), removed);
+                unspentTxOutputsSnapshot = null;
+                spentTxOutputsSnapshot = null;
+            }
+        });
     }
 
 
@@ -302,6 +394,7 @@ public class BsqBlockChain implements PersistableEnvelope, WritableBsqBlockChain
         return lock.read(() -> getClone(this));
     }
 
+    // O(chain): all txs and blocks get serialized and decoded again
     @Override
     public BsqBlockChain getClone(BsqBlockChain bsqBlockChain) {
         return lock.read(() -> (BsqBlockChain) BsqBlockChain.fromProto(bsqBlockChain.getBsqBlockChainBuilder().build()));
@@ -319,7 +412,12 @@ public class BsqBlockChain implements PersistableEnvelope, WritableBsqBlockChain
 
     @Override
     public boolean containsBsqBlock(BsqBlock bsqBlock) {
-        return lock.read(() -> bsqBlocks.contains(bsqBlock));
+        return lock.read(() -> bsqBlock.equals(bsqBlocksByHeight.get(bsqBlock.getHeight())));
+    }
+
+    @Override
+    public Optional<BsqBlock> getBsqBlockAtHeight(int height) {
+        return lock.read(() -> Optional.ofNullable(bsqBlocksByHeight.get(height)));
     }
 
     @Override
@@ -334,13 +432,18 @@ public class BsqBlockChain implements PersistableEnvelope, WritableBsqBlockChain
 
     @Override
     public List<BsqBlock> getClonedBlocksFrom(int fromBlockHeight) {
-        return lock.read(() -> {
-            BsqBlockChain clone = getClone();
-            return clone.bsqBlocks.stream()
-                    .filter(block -> block.getHeight() >= fromBlockHeight)
-                    .peek(bsqBlock -> bsqBlock.reset())
-                    .collect(Collectors.toList());
-        });
+        return getSerializedBlocksFrom(fromBlockHeight).stream()
+                .map(BsqBlock::fromProto)
+                .collect(Collectors.toList());
+    }
+
+    // Returns the blocks in the reset state as requested by lite nodes. The returned messages are immutable and
+    // shared between all callers.
+    @Override
+    public List<PB.BsqBlock> getSerializedBlocksFrom(int fromBlockHeight) {
+        return lock.read(() -> bsqBlocksByHeight.tailMap(fromBlockHeight, true).values().stream()
+                .map(this::getResetBsqBlockProto)
+                .collect(Collectors.toList()));
     }
 
 
@@ -367,10 +470,14 @@ public class BsqBlockChain implements PersistableEnvelope, WritableBsqBlockChain
 
     @Override
     public Set<Tx> getFeeTransactions() {
-        return lock.read(() -> getTxMap().entrySet().stream()
-                .filter(e -> e.getValue().getBurntFee() > 0)
-                .map(Map.Entry::getValue)
-                .collect(Collectors.toSet()));
+        return lock.read(() -> {
+            Set<Tx> snapshot = feeTransactionsSnapshot;
+            if (snapshot == null) {
+                snapshot = ImmutableSet.copyOf(feeTxMap.values());
+                feeTransactionsSnapshot = snapshot;
+            }
+            return snapshot;
+        });
     }
 
     @Override
@@ -408,12 +515,42 @@ public class BsqBlockChain implements PersistableEnvelope, WritableBsqBlockChain
 
     @Override
     public Set<TxOutput> getUnspentTxOutputs() {
-        return lock.read(() -> getAllTxOutputs().stream().filter(e -> e.isVerified() && e.isUnspent()).collect(Collectors.toSet()));
+        return lock.read(() -> {
+            Set<TxOutput> snapshot = unspentTxOutputsSnapshot;
+            if (snapshot == null) {
+                snapshot = ImmutableSet.copyOf(unspentTxOutputsMap.values());
+                unspentTxOutputsSnapshot = snapshot;
+            }
+            return snapshot;
+        });
     }
 
     @Override
     public Set<TxOutput> getSpentTxOutputs() {
-        return lock.read(() -> getAllTxOutputs().stream().filter(e -> e.isVerified() && !e.isUnspent()).collect(Collectors.toSet()));
+        return lock.read(() -> {
+            Set<TxOutput> snapshot = spentTxOutputsSnapshot;
+            if (snapshot == null) {
+                snapshot = ImmutableSet.copyOf(spentTxOutputsMap.values());
+                spentTxOutputsSnapshot = snapshot;
+            }
+            return snapshot;
+        });
+    }
+
+    // Used as cheap pre-filter at parsing to detect txs which cannot be BSQ txs
+    @Override
+    public boolean hasUnspentTxOutputs(String txId) {
+        return lock.read(() -> numUnspentTxOutputsByTxId.containsKey(txId));
+    }
+
+    @Override
+    public List<TxOutput> getUnspentTxOutputsForAddress(String address) {
+        return lock.read(() -> getUnspentTxOutputs(unspentTxOutputsByAddress.get(address)));
+    }
+
+    @Override
+    public List<TxOutput> getUnspentTxOutputsAtBlockHeight(int blockHeight) {
+        return lock.read(() -> getUnspentTxOutputs(unspentTxOutputsByBlockHeight.get(blockHeight)));
     }
 
     @Override
@@ -428,9 +565,83 @@ public class BsqBlockChain implements PersistableEnvelope, WritableBsqBlockChain
     }
 
     private Optional<TxOutput> getUnspentTxOutput(TxIdIndexTuple txIdIndexTuple) {
-        return lock.read(() -> unspentTxOutputsMap.entrySet().stream()
-                .filter(e -> e.getKey().equals(txIdIndexTuple))
-                .map(Map.Entry::getValue).findAny());
+        return lock.read(() -> Optional.ofNullable(unspentTxOutputsMap.get(txIdIndexTuple)));
+    }
+
+    private List<TxOutput> getUnspentTxOutputs(@Nullable Set<TxIdIndexTuple> txIdIndexTuples) {
+        if (txIdIndexTuples == null)
+            return new ArrayList<>();
+
+        return txIdIndexTuples.stream()
+                .map(unspentTxOutputsMap::get)
+                .collect(Collectors.toList());
+    }
+
+    // Rebuilds all derived views from txMap and unspentTxOutputsMap. Only used at construction and when applying a
+    // snapshot, otherwise the views get updated incrementally.
+    private void buildViews() {
+        bsqBlocksByHeight.clear();
+        bsqBlocks.forEach(bsqBlock -> bsqBlocksByHeight.put(bsqBlock.getHeight(), bsqBlock));
+
+        unspentTxOutputsByAddress.clear();
+        unspentTxOutputsByBlockHeight.clear();
+        numUnspentTxOutputsByTxId.clear();
+        unspentTxOutputsMap.values().forEach(this::addToUnspentTxOutputIndices);
+
+        spentTxOutputsMap.clear();
+        getAllTxOutputs().stream()
+                .filter(e -> e.isVerified() && !e.isUnspent())
+                .forEach(e -> spentTxOutputsMap.put(e.getTxIdIndexTuple(), e));
+
+        feeTxMap.clear();
+        txMap.values().forEach(this::updateFeeTxView);
+
+        unspentTxOutputsSnapshot = null;
+        spentTxOutputsSnapshot = null;
+        feeTransactionsSnapshot = null;
+    }
+
+    private PB.BsqBlock getResetBsqBlockProto(BsqBlock bsqBlock) {
+        return resetBsqBlockProtoCache.computeIfAbsent(bsqBlock.getHeight(), height -> {
+            final BsqBlock clone = BsqBlock.fromProto(bsqBlock.toProtoMessage());
+            clone.reset();
+            return clone.toProtoMessage();
+        });
+    }
+
+    private void updateFeeTxView(Tx tx) {
+        if (tx.getBurntFee() > 0 && !feeTxMap.containsKey(tx.getId())) {
+            feeTxMap.put(tx.getId(), tx);
+            feeTransactionsSnapshot = null;
+        }
+    }
+
+    // We use the TxIdIndexTuple as value in the indices as TxOutput is mutable and its hashCode would change with
+    // the unspent state.
+    private void addToUnspentTxOutputIndices(TxOutput txOutput) {
+        final TxIdIndexTuple txIdIndexTuple = txOutput.getTxIdIndexTuple();
+        if (txOutput.getAddress() != null)
+            unspentTxOutputsByAddress.computeIfAbsent(txOutput.getAddress(), k -> new HashSet<>()).add(txIdIndexTuple);
+        unspentTxOutputsByBlockHeight.computeIfAbsent(txOutput.getBlockHeight(), k -> new HashSet<>()).add(txIdIndexTuple);
+        numUnspentTxOutputsByTxId.merge(txOutput.getTxId(), 1, Integer::sum);
+    }
+
+    private void removeFromUnspentTxOutputIndices(TxOutput txOutput) {
+        final TxIdIndexTuple txIdIndexTuple = txOutput.getTxIdIndexTuple();
+        if (txOutput.getAddress() != null)
+            removeFromIndex(unspentTxOutputsByAddress, txOutput.getAddress(), txIdIndexTuple);
+        removeFromIndex(unspentTxOutputsByBlockHeight, txOutput.getBlockHeight(), txIdIndexTuple);
+        // merge removes the entry if the remapping function returns null
+        numUnspentTxOutputsByTxId.merge(txOutput.getTxId(), -1, (a, b) -> a + b == 0 ? null : a + b);
+    }
+
+    private static <K> void removeFromIndex(Map<K, Set<TxIdIndexTuple>> index, K key, TxIdIndexTuple txIdIndexTuple) {
+        final Set<TxIdIndexTuple> set = index.get(key);
+        if (set != null) {
+            set.remove(txIdIndexTuple);
+            if (set.isEmpty())
+                index.remove(key);
+        }
     }
 
     private Set<TxOutput> getAllTxOutputs() {
@@ -462,7 +673,7 @@ public class BsqBlockChain implements PersistableEnvelope, WritableBsqBlockChain
 
     @Override
     public Coin getTotalBurntFee() {
-        return lock.read(() -> Coin.valueOf(getTxMap().entrySet().stream().mapToLong(e -> e.getValue().getBurntFee()).sum()));
+        return lock.read(() -> Coin.valueOf(feeTxMap.values().stream().mapToLong(Tx::getBurntFee).sum()));
     }
 
     @Override
@@ -0,0 +1,234 @@
+/*
+ * This file is part of bisq.
+ *
+ * bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.dao.blockchain;
+
+import com.google.common.io.CountingInputStream;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import io.bisq.common.util.Utilities;
+import io.bisq.core.dao.blockchain.vo.BsqBlock;
+import io.bisq.core.util.AtomicFileWriter;
+import io.bisq.generated.protobuffer.PB;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Append-only log of the BsqBlocks added since the last base snapshot.
+ * <p>
+ * Each block is serialized at the time it got added and appended as length delimited protobuf message to the current
+ * segment file. Segment files are named by the height of their first block. Segments which are fully covered by a
+ * persisted base snapshot get deleted.
+ * <p>
+ * Blocks are serialized in the calling thread (the state of the txs changes in later blocks) and written to disk in
+ * a separate thread.
+ */
+@Slf4j
+class BsqBlockLog {
+    private static final String DIR_NAME = "BsqBlockLog";
+    private static final String FILE_NAME_PREFIX = "BsqBlocks_";
+
+    private final File dir;
+    private final ListeningExecutorService executor = Utilities.getListeningSingleThreadExecutor("BsqBlockLog");
+
+    // Only accessed from executor thread
+    @Nullable
+    private File currentSegment;
+    private boolean startNewSegment = true;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    BsqBlockLog(File storageDir) {
+        dir = new File(storageDir, DIR_NAME);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void append(BsqBlock bsqBlock) {
+        final PB.BsqBlock proto = bsqBlock.toProtoMessage();
+        executor.submit(() -> {
+            if (startNewSegment || currentSegment == null) {
+                if (!dir.exists() && !dir.mkdirs())
+                    log.warn("Could not create directory " + dir.getAbsolutePath());
+                currentSegment = new File(dir, FILE_NAME_PREFIX + proto.getHeight());
+                startNewSegment = false;
+            }
+            try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(currentSegment, true))) {
+                proto.writeDelimitedTo(outputStream);
+            } catch (IOException e) {
+                log.error("Could not append block at height {} to {}. {}",
+                        proto.getHeight(), currentSegment.getAbsolutePath(), e.toString());
+            }
+        });
+    }
+
+    // The next appended block will be written to a new segment. Called after a base snapshot was created so that
+    // older segments can be deleted once the snapshot is persisted.
+    void startNewSegment() {
+        executor.submit(() -> {
+            startNewSegment = true;
+        });
+    }
+
+    // Deletes all segments which contain only blocks up to the given height.
+    void removeSegmentsUpTo(int height) {
+        executor.submit(() -> {
+            final List<Integer> firstHeights = getSegmentFirstHeights();
+            for (int i = 0; i < firstHeights.size() - 1; i++) {
+                // A segment ends before the first block of the next segment
+                if (firstHeights.get(i + 1) - 1 <= height) {
+                    final File segment = getSegment(firstHeights.get(i));
+                    if (!segment.delete())
+                        log.warn("Could not delete " + segment.getAbsolutePath());
+                }
+            }
+        });
+    }
+
+    // Removes all blocks above the given height, e.g. if they got orphaned by a reorg. Blocks until done, so appends
+    // submitted before are written before and a following read does not see the removed blocks.
+    void removeBlocksAfter(int height) {
+        runAndWait(() -> {
+            // The blocks after the given height get appended again to a new segment
+            startNewSegment = true;
+            for (int firstHeight : getSegmentFirstHeights()) {
+                final File segment = getSegment(firstHeight);
+                if (firstHeight > height) {
+                    if (!segment.delete())
+                        log.warn("Could not delete " + segment.getAbsolutePath());
+                    continue;
+                }
+
+                final List<PB.BsqBlock> protos = readSegment(segment);
+                if (protos.stream().anyMatch(proto -> proto.getHeight() > height)) {
+                    try {
+                        AtomicFileWriter.write(segment, outputStream -> {
+                            for (PB.BsqBlock proto : protos) {
+                                if (proto.getHeight() <= height)
+                                    proto.writeDelimitedTo(outputStream);
+                            }
+                        });
+                    } catch (IOException e) {
+                        log.error("Could not remove blocks after height {} from {}. {}",
+                                height, segment.getAbsolutePath(), e.toString());
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    // Reads all blocks in order of their height. A partly written block at the end of a segment (e.g. after a crash)
+    // gets truncated. Blocks until the appends submitted before are written.
+    List<BsqBlock> read() {
+        final List<BsqBlock> bsqBlocks = runAndWait(() -> {
+            final List<BsqBlock> list = new ArrayList<>();
+            for (int firstHeight : getSegmentFirstHeights()) {
+                for (PB.BsqBlock proto : readSegment(getSegment(firstHeight))) {
+                    list.add(BsqBlock.fromProto(proto));
+                }
+            }
+            return list;
+        });
+        return bsqBlocks != null ? bsqBlocks : new ArrayList<>();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Nullable
+    private <T> T runAndWait(Callable<T> task) {
+        try {
+            return executor.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while waiting for the block log. " + e.toString());
+        } catch (ExecutionException e) {
+            log.error("Block log task failed. " + e.getCause().toString());
+        }
+        return null;
+    }
+
+    // A partly written block at the end gets truncated, as the blocks appended later would not be readable otherwise.
+    // If no block is complete we delete the segment, so a new segment with the same name starts empty.
+    private List<PB.BsqBlock> readSegment(File segment) {
+        final List<PB.BsqBlock> protos = new ArrayList<>();
+        long completeLength = 0;
+        try (CountingInputStream inputStream = new CountingInputStream(new BufferedInputStream(new FileInputStream(segment)))) {
+            PB.BsqBlock proto;
+            while ((proto = PB.BsqBlock.parseDelimitedFrom(inputStream)) != null) {
+                protos.add(proto);
+                completeLength = inputStream.getCount();
+            }
+        } catch (IOException e) {
+            log.warn("Could not read all blocks of {}. {}", segment.getAbsolutePath(), e.toString());
+        }
+
+        if (completeLength < segment.length()) {
+            log.warn("Truncating {} to the last complete block at {} of {} bytes.",
+                    segment.getAbsolutePath(), completeLength, segment.length());
+            if (completeLength == 0) {
+                if (!segment.delete())
+                    log.error("Could not delete " + segment.getAbsolutePath());
+            } else {
+                try (FileChannel channel = FileChannel.open(segment.toPath(), StandardOpenOption.WRITE)) {
+                    channel.truncate(completeLength);
+                } catch (IOException e) {
+                    log.error("Truncating " + segment.getAbsolutePath() + " failed. " + e.toString());
+                }
+            }
+        }
+        return protos;
+    }
+
+    private List<Integer> getSegmentFirstHeights() {
+        final List<Integer> firstHeights = new ArrayList<>();
+        final File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                final String name = file.getName();
+                if (name.startsWith(FILE_NAME_PREFIX)) {
+                    try {
+                        firstHeights.add(Integer.parseInt(name.substring(FILE_NAME_PREFIX.length())));
+                    } catch (NumberFormatException e) {
+                        log.warn("Unexpected file in " + dir.getAbsolutePath() + ": " + name);
+                    }
+                }
+            }
+        }
+        Collections.sort(firstHeights);
+        return firstHeights;
+    }
+
+    private File getSegment(int firstHeight) {
+        return new File(dir, FILE_NAME_PREFIX + firstHeight);
+    }
+}
@@ -22,6 +22,7 @@ import io.bisq.core.dao.blockchain.vo.Tx;
 import io.bisq.core.dao.blockchain.vo.TxOutput;
 import io.bisq.core.dao.blockchain.vo.TxType;
 import io.bisq.core.dao.blockchain.vo.util.TxIdIndexTuple;
+import io.bisq.generated.protobuffer.PB;
 import org.bitcoinj.core.Coin;
 
 import java.util.*;
@@ -31,8 +32,12 @@ public interface ReadableBsqBlockChain {
 
     boolean containsBsqBlock(BsqBlock bsqBlock);
 
+    Optional<BsqBlock> getBsqBlockAtHeight(int height);
+
     List<BsqBlock> getClonedBlocksFrom(int fromBlockHeight);
 
+    List<PB.BsqBlock> getSerializedBlocksFrom(int fromBlockHeight);
+
     Map<String, Tx> getTxMap();
 
     Tx getGenesisTx();
@@ -57,10 +62,16 @@ public interface ReadableBsqBlockChain {
 
     boolean isTxOutputSpendable(String txId, int index);
 
+    boolean hasUnspentTxOutputs(String txId);
+
     Set<TxOutput> getUnspentTxOutputs();
 
     Set<TxOutput> getSpentTxOutputs();
 
+    List<TxOutput> getUnspentTxOutputsForAddress(String address);
+
+    List<TxOutput> getUnspentTxOutputsAtBlockHeight(int blockHeight);
+
     Optional<TxType> getTxType(String txId);
 
     boolean isCompensationRequestPeriodValid(int blockHeight);
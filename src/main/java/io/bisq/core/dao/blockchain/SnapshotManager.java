@@ -20,42 +20,61 @@ package io.bisq.core.dao.blockchain;
 import com.google.common.annotations.VisibleForTesting;
 import io.bisq.common.proto.persistable.PersistenceProtoResolver;
 import io.bisq.common.storage.Storage;
+import io.bisq.core.dao.DaoOptionKeys;
 import io.bisq.core.dao.blockchain.vo.BsqBlock;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Named;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Manages snapshots of the BsqBlockChain.
+ * <p>
+ * If the incrementalSnapshots option is set we don't store a full snapshot every SNAPSHOT_GRID blocks but append each
+ * added block to the BsqBlockLog. Only every COMPACTION_INTERVAL blocks a full base snapshot is stored. At startup we
+ * apply the base snapshot and replay the logged blocks. At a reorg we roll back to the base snapshot and replay the
+ * logged blocks up to the fork point. The logged blocks after it got orphaned and are removed from the log.
  */
 //TODO add tests; check if current logic is correct.
 @Slf4j
 public class SnapshotManager implements BsqBlockChain.Listener {
     private static final int SNAPSHOT_GRID = 10;
+    private static final int COMPACTION_INTERVAL = 1000;
 
     private final ReadableBsqBlockChain readableBsqBlockChain;
     private final WritableBsqBlockChain writableBsqBlockChain;
     private final Storage<BsqBlockChain> storage;
 
+    @Nullable
+    private final BsqBlockLog bsqBlockLog;
+
     private BsqBlockChain snapshotCandidate;
+    // Height of the last base snapshot in incremental mode
+    private int baseSnapshotHeight;
 
     @Inject
     public SnapshotManager(ReadableBsqBlockChain readableBsqBlockChain,
                            WritableBsqBlockChain writableBsqBlockChain,
                            PersistenceProtoResolver persistenceProtoResolver,
-                           @Named(Storage.STORAGE_DIR) File storageDir) {
+                           @Named(Storage.STORAGE_DIR) File storageDir,
+                           @Named(DaoOptionKeys.INCREMENTAL_SNAPSHOTS) boolean incrementalSnapshots) {
         this.readableBsqBlockChain = readableBsqBlockChain;
         this.writableBsqBlockChain = writableBsqBlockChain;
         storage = new Storage<>(storageDir, persistenceProtoResolver);
+        bsqBlockLog = incrementalSnapshots ? new BsqBlockLog(storageDir) : null;
 
         readableBsqBlockChain.addListener(this);
     }
 
-    public void applySnapshot() {
+    // The notConnectingBlock is the block of the new branch which caused the reorg, null at startup
+    public void applySnapshot(@Nullable BsqBlock notConnectingBlock) {
         checkNotNull(storage, "storage must not be null");
         BsqBlockChain snapshot = storage.initAndGetPersistedWithFileName("BsqBlockChain", 100);
         if (snapshot != null) {
@@ -65,6 +84,9 @@ public class SnapshotManager implements BsqBlockChain.Listener {
             log.info("Try to apply snapshot but no stored snapshot available");
         }
 
+        if (bsqBlockLog != null)
+            replayBlockLog(notConnectingBlock);
+
         readableBsqBlockChain.printDetails();
     }
 
@@ -85,15 +107,22 @@ public class SnapshotManager implements BsqBlockChain.Listener {
 
     @Override
     public void onBlockAdded(BsqBlock bsqBlock) {
+        if (bsqBlockLog != null)
+            onBlockAddedIncremental(bsqBlock);
+        else
+            onBlockAddedFull();
+    }
+
+    private void onBlockAddedFull() {
         final int chainHeadHeight = readableBsqBlockChain.getChainHeadHeight();
         if (isSnapshotHeight(chainHeadHeight) &&
                 (snapshotCandidate == null ||
                         snapshotCandidate.getChainHeadHeight() != chainHeadHeight)) {
             // At trigger event we store the latest snapshotCandidate to disc
             if (snapshotCandidate != null) {
-                // We clone because storage is in a threaded context
-                final BsqBlockChain cloned = readableBsqBlockChain.getClone(snapshotCandidate);
-                storage.queueUpForSave(cloned);
+                // The snapshotCandidate is already a clone which is not accessed anywhere else, so we can pass it
+                // to the threaded storage without cloning it again
+                storage.queueUpForSave(snapshotCandidate);
                 log.info("Saved snapshotCandidate to Disc at height " + chainHeadHeight);
             }
             // Now we clone and keep it in memory for the next trigger
@@ -102,4 +131,96 @@ public class SnapshotManager implements BsqBlockChain.Listener {
             log.debug("Cloned new snapshotCandidate at height " + chainHeadHeight);
         }
     }
+
+    private void onBlockAddedIncremental(BsqBlock bsqBlock) {
+        bsqBlockLog.append(bsqBlock);
+
+        if (bsqBlock.getHeight() - baseSnapshotHeight >= COMPACTION_INTERVAL) {
+            // We clone because storage is in a threaded context
+            storage.queueUpForSave(readableBsqBlockChain.getClone());
+            bsqBlockLog.startNewSegment();
+            // The previous base snapshot was stored COMPACTION_INTERVAL blocks ago, so we can safely remove the
+            // segments covered by it. The segments covered by the new one are removed at the next compaction or at
+            // next startup.
+            bsqBlockLog.removeSegmentsUpTo(baseSnapshotHeight);
+            baseSnapshotHeight = bsqBlock.getHeight();
+            log.info("Saved base snapshot at height " + baseSnapshotHeight);
+        }
+    }
+
+    private void replayBlockLog(@Nullable BsqBlock notConnectingBlock) {
+        final int persistedSnapshotHeight = readableBsqBlockChain.getChainHeadHeight();
+        baseSnapshotHeight = Math.max(persistedSnapshotHeight, readableBsqBlockChain.getGenesisBlockHeight());
+
+        final String chainHeadHash = readableBsqBlockChain.getBsqBlockAtHeight(persistedSnapshotHeight)
+                .map(BsqBlock::getHash)
+                .orElse(null);
+        final List<BsqBlock> loggedBlocks = bsqBlockLog.read();
+        List<BsqBlock> blocks = getBlocksToReplay(loggedBlocks, persistedSnapshotHeight, chainHeadHash,
+                readableBsqBlockChain.getGenesisBlockHeight());
+        if (notConnectingBlock != null) {
+            // The blocks after the fork point got orphaned. If we replayed them we would run into the same reorg again.
+            final int forkHeight = getForkHeight(blocks, notConnectingBlock);
+            blocks = blocks.stream()
+                    .filter(bsqBlock -> bsqBlock.getHeight() <= forkHeight)
+                    .collect(Collectors.toList());
+            log.info("Reorg at height {}. We replay the logged blocks up to height {}.",
+                    notConnectingBlock.getHeight(), forkHeight);
+        }
+        if (!blocks.isEmpty()) {
+            writableBsqBlockChain.applyBlocks(blocks);
+            log.info("Replayed {} blocks from block log. chainHeadHeight={}",
+                    blocks.size(), readableBsqBlockChain.getChainHeadHeight());
+        }
+
+        // The blocks we did not replay get requested again by the parser and appended again to the log
+        final int replayedHeight = blocks.isEmpty() ? persistedSnapshotHeight : blocks.get(blocks.size() - 1).getHeight();
+        if (loggedBlocks.stream().anyMatch(bsqBlock -> bsqBlock.getHeight() > replayedHeight))
+            bsqBlockLog.removeBlocksAfter(replayedHeight);
+
+        bsqBlockLog.removeSegmentsUpTo(persistedSnapshotHeight);
+    }
+
+    // Returns the height of the last of the given connected blocks which is still part of the branch of the not
+    // connecting block. If its previous block is not among them, the block before it got orphaned as well. A deeper
+    // fork leads to another not connecting block at which we step back further.
+    @VisibleForTesting
+    static int getForkHeight(List<BsqBlock> connectedBlocks, BsqBlock notConnectingBlock) {
+        return connectedBlocks.stream()
+                .filter(bsqBlock -> bsqBlock.getHash().equals(notConnectingBlock.getPreviousBlockHash()))
+                .findAny()
+                .map(BsqBlock::getHeight)
+                .orElse(notConnectingBlock.getHeight() - 2);
+    }
+
+    // Returns the logged blocks which continue the chain at the given head. We stop at a gap or at a block which
+    // does not connect to the previous one.
+    @VisibleForTesting
+    static List<BsqBlock> getBlocksToReplay(List<BsqBlock> loggedBlocks, int chainHeadHeight,
+                                            @Nullable String chainHeadHash, int genesisBlockHeight) {
+        final List<BsqBlock> blocks = new ArrayList<>();
+        for (BsqBlock bsqBlock : loggedBlocks) {
+            // Blocks up to the base snapshot height are already included in the snapshot
+            if (bsqBlock.getHeight() <= chainHeadHeight)
+                continue;
+
+            final int expectedHeight = chainHeadHeight == 0 ? genesisBlockHeight : chainHeadHeight + 1;
+            if (bsqBlock.getHeight() != expectedHeight) {
+                // Missing blocks will be requested again by the parser
+                log.warn("Block log is not continuous. Expected height {} but got {}. We stop replaying.",
+                        expectedHeight, bsqBlock.getHeight());
+                break;
+            }
+            // The genesis block has no previous block in our chain
+            if (chainHeadHash != null && !chainHeadHash.equals(bsqBlock.getPreviousBlockHash())) {
+                log.warn("Logged block at height {} does not connect to our chain head {}. We stop replaying.",
+                        bsqBlock.getHeight(), chainHeadHash);
+                break;
+            }
+            blocks.add(bsqBlock);
+            chainHeadHeight = bsqBlock.getHeight();
+            chainHeadHash = bsqBlock.getHash();
+        }
+        return blocks;
+    }
 }
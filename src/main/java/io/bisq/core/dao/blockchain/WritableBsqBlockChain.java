@@ -21,10 +21,14 @@ import io.bisq.core.dao.blockchain.vo.BsqBlock;
 import io.bisq.core.dao.blockchain.vo.Tx;
 import io.bisq.core.dao.blockchain.vo.TxOutput;
 
+import java.util.List;
+
 public interface WritableBsqBlockChain {
 
     void applySnapshot(BsqBlockChain snapshot);
 
+    void applyBlocks(List<BsqBlock> blocks);
+
     void addBlock(BsqBlock bsqBlock);
 
     void setGenesisTx(Tx tx);
@@ -23,12 +23,14 @@ import io.bisq.core.dao.blockchain.BsqBlockChainListener;
 import io.bisq.core.dao.blockchain.ReadableBsqBlockChain;
 import io.bisq.core.dao.blockchain.SnapshotManager;
 import io.bisq.core.dao.blockchain.WritableBsqBlockChain;
+import io.bisq.core.dao.blockchain.vo.BsqBlock;
 import io.bisq.core.provider.fee.FeeService;
 import io.bisq.network.p2p.P2PService;
 import io.bisq.network.p2p.P2PServiceListener;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -102,7 +104,7 @@ public abstract class BsqNode {
 
     @SuppressWarnings("WeakerAccess")
     protected void onInitialized() {
-        applySnapshot();
+        applySnapshot(null);
         log.info("onAllServicesInitialized");
         if (p2PService.isBootstrapped()) {
             log.info("onAllServicesInitialized: isBootstrapped");
@@ -176,8 +178,8 @@ public abstract class BsqNode {
     }
 
     @SuppressWarnings("WeakerAccess")
-    protected void startReOrgFromLastSnapshot() {
-        applySnapshot();
+    protected void startReOrgFromLastSnapshot(BsqBlock notConnectingBlock) {
+        applySnapshot(notConnectingBlock);
         startParseBlocks();
     }
 
@@ -186,8 +188,8 @@ public abstract class BsqNode {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private void applySnapshot() {
-        snapshotManager.applySnapshot();
+    private void applySnapshot(@Nullable BsqBlock notConnectingBlock) {
+        snapshotManager.applySnapshot(notConnectingBlock);
         bsqBlockChainListeners.forEach(BsqBlockChainListener::onBsqBlockChainChanged);
     }
 }
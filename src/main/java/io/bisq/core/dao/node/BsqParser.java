@@ -18,6 +18,7 @@
 package io.bisq.core.dao.node;
 
 import io.bisq.common.app.DevEnv;
+import io.bisq.core.dao.blockchain.ReadableBsqBlockChain;
 import io.bisq.core.dao.blockchain.vo.Tx;
 import io.bisq.core.dao.blockchain.vo.TxInput;
 import io.bisq.core.dao.node.consensus.BsqBlockController;
@@ -27,13 +28,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import javax.annotation.concurrent.Immutable;
 import javax.inject.Inject;
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
-
-import static com.google.common.base.Preconditions.checkArgument;
+import java.util.*;
 
 
 /**
@@ -47,6 +42,7 @@ public abstract class BsqParser {
     protected final BsqBlockController bsqBlockController;
     private final GenesisTxController genesisTxController;
     private final BsqTxController bsqTxController;
+    private final ReadableBsqBlockChain readableBsqBlockChain;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -57,10 +53,12 @@ public abstract class BsqParser {
     @Inject
     public BsqParser(BsqBlockController bsqBlockController,
                      GenesisTxController genesisTxController,
-                     BsqTxController bsqTxController) {
+                     BsqTxController bsqTxController,
+                     ReadableBsqBlockChain readableBsqBlockChain) {
         this.bsqBlockController = bsqBlockController;
         this.genesisTxController = genesisTxController;
         this.bsqTxController = bsqTxController;
+        this.readableBsqBlockChain = readableBsqBlockChain;
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -76,83 +74,93 @@ public abstract class BsqParser {
         }
     }
 
-    // Performance-wise the recursion does not hurt (e.g. 5-20 ms).
-    // The RPC requestTransaction is the bottleneck.
-    protected void recursiveFindBsqTxs(List<Tx> bsqTxsInBlock,
-                                       List<Tx> transactions,
-                                       int blockHeight,
-                                       int recursionCounter,
-                                       int maxRecursions) {
-        // The set of txIds of txs which are used for inputs of another tx in same block
-        Set<String> intraBlockSpendingTxIdSet = getIntraBlockSpendingTxIdSet(transactions);
-
-        List<Tx> txsWithoutInputsFromSameBlock = new ArrayList<>();
-        List<Tx> txsWithInputsFromSameBlock = new ArrayList<>();
-
-        // First we find the txs which have no intra-block inputs
-        outerLoop:
-        for (Tx tx : transactions) {
-            for (TxInput input : tx.getInputs()) {
-                if (intraBlockSpendingTxIdSet.contains(input.getTxId())) {
-                    // We have an input from one of the intra-block-transactions, so we cannot process that tx now.
-                    // We add the tx for later parsing to the txsWithInputsFromSameBlock and move to the next tx.
-                    txsWithInputsFromSameBlock.add(tx);
-                    continue outerLoop;
+    // We process the txs in the order of their intra-block dependency graph, using Kahn's algorithm layer by layer.
+    // The first layer contains all txs which have no inputs from other txs of the same block, the next layer all txs
+    // which have only inputs from txs of previous layers and so on. Within a layer we keep the order of the block.
+    // That results in the same order as the former recursive resolution but is done in a single pass over the
+    // dependency graph (O(n + e) instead of O(n²) for long chains like at block 130768).
+    protected void findBsqTxs(List<Tx> bsqTxsInBlock,
+                              List<Tx> transactions,
+                              int blockHeight) {
+        final int numTxs = transactions.size();
+        Map<String, Integer> indexByTxId = new HashMap<>(numTxs * 2);
+        for (int i = 0; i < numTxs; i++) {
+            indexByTxId.put(transactions.get(i).getId(), i);
+        }
+
+        // The number of inputs connected to txs of the same block and for each tx the indices of the txs spending it
+        int[] numIntraBlockInputs = new int[numTxs];
+        List<List<Integer>> spendingTxIndices = new ArrayList<>(numTxs);
+        for (int i = 0; i < numTxs; i++) {
+            spendingTxIndices.add(new ArrayList<>());
+        }
+        for (int i = 0; i < numTxs; i++) {
+            for (TxInput input : transactions.get(i).getInputs()) {
+                final Integer connectedTxIndex = indexByTxId.get(input.getTxId());
+                if (connectedTxIndex != null) {
+                    numIntraBlockInputs[i]++;
+                    spendingTxIndices.get(connectedTxIndex).add(i);
                 }
             }
-            // If we have not found any tx input pointing to anther tx in the same block we add it to our
-            // txsWithoutInputsFromSameBlock.
-            txsWithoutInputsFromSameBlock.add(tx);
         }
-        checkArgument(txsWithInputsFromSameBlock.size() + txsWithoutInputsFromSameBlock.size() == transactions.size(),
-                "txsWithInputsFromSameBlock.size + txsWithoutInputsFromSameBlock.size != transactions.size");
 
-        // Usual values is up to 25
-        // There are some blocks where it seems developers have tested graphs of many depending txs, but even
-        // those don't exceed 200 recursions and are mostly old blocks from 2012 when fees have been low ;-).
-        // TODO check strategy btc core uses (sorting the dependency graph would be an optimisation)
-        // Seems btc core delivers tx list sorted by dependency graph. -> TODO verify and test
-        if (recursionCounter > 1000) {
-            log.warn("Unusual high recursive calls at resolveConnectedTxs. recursionCounter=" + recursionCounter);
-            log.warn("blockHeight=" + blockHeight);
-            log.warn("txsWithoutInputsFromSameBlock.size " + txsWithoutInputsFromSameBlock.size());
-            log.warn("txsWithInputsFromSameBlock.size " + txsWithInputsFromSameBlock.size());
-            //  log.warn("txsWithInputsFromSameBlock " + txsWithInputsFromSameBlock.stream().map(e->e.getId()).collect(Collectors.toList()));
+        List<Integer> layer = new ArrayList<>();
+        for (int i = 0; i < numTxs; i++) {
+            if (numIntraBlockInputs[i] == 0)
+                layer.add(i);
         }
 
-        // we check if we have any valid BSQ from that tx set
-        bsqTxsInBlock.addAll(txsWithoutInputsFromSameBlock.stream()
-                .filter(tx -> bsqTxController.isBsqTx(blockHeight, tx))
-                .collect(Collectors.toList()));
-
-        log.debug("Parsing of all txsWithoutInputsFromSameBlock is done.");
-
-        // we check if we have any valid BSQ utxo from that tx set
-        // We might have InputsFromSameBlock which are BTC only but not BSQ, so we cannot
-        // optimize here and need to iterate further.
-        if (!txsWithInputsFromSameBlock.isEmpty()) {
-            if (recursionCounter < maxRecursions) {
-                recursiveFindBsqTxs(bsqTxsInBlock, txsWithInputsFromSameBlock, blockHeight,
-                        ++recursionCounter, maxRecursions);
-            } else {
-                final String msg = "We exceeded our max. recursions for resolveConnectedTxs.\n" +
-                        "txsWithInputsFromSameBlock=" + txsWithInputsFromSameBlock.toString() + "\n" +
-                        "txsWithoutInputsFromSameBlock=" + txsWithoutInputsFromSameBlock;
-                log.warn(msg);
-                if (DevEnv.isDevMode())
-                    throw new RuntimeException(msg);
+        int numLayers = 0;
+        int numProcessedTxs = 0;
+        while (!layer.isEmpty()) {
+            List<Integer> nextLayer = new ArrayList<>();
+            for (int index : layer) {
+                final Tx tx = transactions.get(index);
+                if (isBsqTxCandidate(tx) && bsqTxController.isBsqTx(blockHeight, tx))
+                    bsqTxsInBlock.add(tx);
+
+                for (int spendingTxIndex : spendingTxIndices.get(index)) {
+                    if (--numIntraBlockInputs[spendingTxIndex] == 0)
+                        nextLayer.add(spendingTxIndex);
+                }
             }
-        } else {
-            log.debug("We have no more txsWithInputsFromSameBlock.");
+            numProcessedTxs += layer.size();
+            numLayers++;
+            // We keep the order of the block inside the layer
+            Collections.sort(nextLayer);
+            layer = nextLayer;
+        }
+
+        // Usual values is up to 25
+        // There are some blocks where it seems developers have tested graphs of many depending txs, but even
+        // those don't exceed 200 layers and are mostly old blocks from 2012 when fees have been low ;-).
+        if (numLayers > 1000)
+            log.warn("Unusual high number of dependency layers at findBsqTxs. numLayers={}, blockHeight={}", numLayers, blockHeight);
+
+        // Can only happen with a circular dependency which is not possible in a valid block
+        if (numProcessedTxs != numTxs) {
+            final String msg = "Not all transactions could be resolved at findBsqTxs. " +
+                    "blockHeight=" + blockHeight + ", numTxs=" + numTxs + ", numProcessedTxs=" + numProcessedTxs;
+            log.warn(msg);
+            if (DevEnv.isDevMode())
+                throw new RuntimeException(msg);
         }
     }
 
-    private Set<String> getIntraBlockSpendingTxIdSet(List<Tx> txs) {
-        Set<String> txIdSet = txs.stream().map(Tx::getId).collect(Collectors.toSet());
-        Set<String> intraBlockSpendingTxIdSet = new HashSet<>();
-        txs.forEach(tx -> tx.getInputs().stream()
-                .filter(input -> txIdSet.contains(input.getTxId()))
-                .forEach(input -> intraBlockSpendingTxIdSet.add(input.getTxId())));
-        return intraBlockSpendingTxIdSet;
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // A tx can only be a BSQ tx if it spends an unspent BSQ output. Most txs in a block don't have any input connected
+    // to a tx with unspent BSQ outputs, so we filter those with a cheap lookup of the txIds before we do the full
+    // verification. As the full verification of such a tx would not apply any state change and would not detect a
+    // BSQ tx the result is exactly the same.
+    private boolean isBsqTxCandidate(Tx tx) {
+        for (TxInput input : tx.getInputs()) {
+            if (readableBsqBlockChain.hasUnspentTxOutputs(input.getTxId()))
+                return true;
+        }
+        return false;
     }
 }
@@ -90,6 +90,7 @@ public class FullNode extends BsqNode {
     public void shutDown() {
         jsonBlockChainExporter.shutDown();
         fullNodeNetworkManager.shutDown();
+        bsqFullNodeExecutor.shutDown();
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -126,7 +127,7 @@ public class FullNode extends BsqNode {
                 this::onNewBsqBlock,
                 throwable -> {
                     if (throwable instanceof BlockNotConnectingException) {
-                        startReOrgFromLastSnapshot();
+                        startReOrgFromLastSnapshot(((BlockNotConnectingException) throwable).getBlock());
                     } else {
                         log.error(throwable.toString());
                         throwable.printStackTrace();
@@ -159,7 +160,7 @@ public class FullNode extends BsqNode {
                             requestChainHeadHeightAndParseBlocks(chainHeadHeight);
                         }, throwable -> {
                             if (throwable instanceof BlockNotConnectingException) {
-                                startReOrgFromLastSnapshot();
+                                startReOrgFromLastSnapshot(((BlockNotConnectingException) throwable).getBlock());
                             } else {
                                 log.error(throwable.toString());
                                 throwable.printStackTrace();
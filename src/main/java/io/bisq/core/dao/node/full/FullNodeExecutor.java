@@ -62,6 +62,10 @@ public class FullNodeExecutor {
     // Package private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    void shutDown() {
+        fullNodeParser.shutDown();
+    }
+
     void setup(ResultHandler resultHandler, Consumer<Throwable> errorHandler) {
         ListenableFuture<Void> future = executor.submit(() -> {
             rpcService.setup();
@@ -19,7 +19,13 @@ package io.bisq.core.dao.node.full;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.neemre.btcdcli4j.core.domain.Block;
+import io.bisq.common.util.Tuple2;
+import io.bisq.core.dao.blockchain.ReadableBsqBlockChain;
 import io.bisq.core.dao.blockchain.exceptions.BlockNotConnectingException;
 import io.bisq.core.dao.blockchain.exceptions.BsqBlockchainException;
 import io.bisq.core.dao.blockchain.vo.BsqBlock;
@@ -31,13 +37,15 @@ import io.bisq.core.dao.node.consensus.GenesisTxController;
 import io.bisq.core.dao.node.full.rpc.RpcService;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
 import java.util.function.Consumer;
 
+import static com.google.common.base.Preconditions.checkState;
+
 /**
  * Parser for full nodes. Request blockchain data via rpc from Bitcoin Core and iterates blocks to find BSQ relevant transactions.
  * <p>
@@ -49,7 +57,12 @@ public class FullNodeParser extends BsqParser {
     private final RpcService rpcService;
     // Maybe we want to request fee at some point, leave it for now and disable it
     private final boolean requestFee = false;
-    private final Map<Integer, Long> feesByBlock = new HashMap<>();
+    private final Map<Integer, Long> feesByBlock = new ConcurrentHashMap<>();
+    // Used for requesting blocks ahead of the parser. Created at first use as it depends on rpcService settings.
+    // Guarded by this, as shutDown gets called from another thread.
+    @Nullable
+    private ListeningExecutorService prefetchExecutor;
+    private boolean shutDownStarted;
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -59,8 +72,9 @@ public class FullNodeParser extends BsqParser {
     public FullNodeParser(RpcService rpcService,
                           BsqBlockController bsqBlockController,
                           GenesisTxController genesisTxController,
-                          BsqTxController bsqTxController) {
-        super(bsqBlockController, genesisTxController, bsqTxController);
+                          BsqTxController bsqTxController,
+                          ReadableBsqBlockChain readableBsqBlockChain) {
+        super(bsqBlockController, genesisTxController, bsqTxController, readableBsqBlockChain);
         this.rpcService = rpcService;
     }
 
@@ -73,10 +87,18 @@ public class FullNodeParser extends BsqParser {
     void parseBlocks(int startBlockHeight,
                      int chainHeadHeight,
                      Consumer<BsqBlock> newBlockHandler) throws BsqBlockchainException, BlockNotConnectingException {
+        // The RPC requests are the bottleneck, so we request the next blocks with their transactions concurrently
+        // while the parsing and the state changes are done strictly sequential in the order of the block height.
+        final Deque<ListenableFuture<Tuple2<Block, List<Tx>>>> prefetchedBlocks = new ArrayDeque<>();
         try {
+            final int maxPrefetchedBlocks = 2 * rpcService.getRpcMaxConnections();
+            int nextBlockHeightToRequest = startBlockHeight;
             for (int blockHeight = startBlockHeight; blockHeight <= chainHeadHeight; blockHeight++) {
-                Block btcdBlock = rpcService.requestBlock(blockHeight);
-                final BsqBlock bsqBlock = parseBlock(btcdBlock);
+                while (nextBlockHeightToRequest <= chainHeadHeight && prefetchedBlocks.size() < maxPrefetchedBlocks) {
+                    prefetchedBlocks.add(requestBlockWithTxs(nextBlockHeightToRequest++));
+                }
+                Tuple2<Block, List<Tx>> blockWithTxs = prefetchedBlocks.remove().get();
+                final BsqBlock bsqBlock = parseBlock(blockWithTxs.first, blockWithTxs.second);
                 newBlockHandler.accept(bsqBlock);
             }
         } catch (BlockNotConnectingException e) {
@@ -85,12 +107,30 @@ public class FullNodeParser extends BsqParser {
             log.error(t.toString());
             t.printStackTrace();
             throw new BsqBlockchainException(t);
+        } finally {
+            prefetchedBlocks.forEach(future -> future.cancel(true));
         }
     }
 
     BsqBlock parseBlock(Block btcdBlock) throws BsqBlockchainException, BlockNotConnectingException {
+        return parseBlock(btcdBlock, requestTxs(btcdBlock));
+    }
+
+    // Pending block requests get interrupted, a running parseBlocks call fails with a BsqBlockchainException
+    synchronized void shutDown() {
+        shutDownStarted = true;
+        if (prefetchExecutor != null)
+            prefetchExecutor.shutdownNow();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private BsqBlock parseBlock(Block btcdBlock, List<Tx> txList) throws BlockNotConnectingException {
         long startTs = System.currentTimeMillis();
-        List<Tx> bsqTxsInBlock = findBsqTxsInBlock(btcdBlock);
+        List<Tx> bsqTxsInBlock = findBsqTxsInBlock(btcdBlock, txList);
         final BsqBlock bsqBlock = new BsqBlock(btcdBlock.getHeight(),
                 btcdBlock.getHash(),
                 btcdBlock.getPreviousBlockHash(),
@@ -101,42 +141,59 @@ public class FullNodeParser extends BsqParser {
         return bsqBlock;
     }
 
+    private ListenableFuture<Tuple2<Block, List<Tx>>> requestBlockWithTxs(int blockHeight) {
+        final ListeningExecutorService prefetchExecutor = getPrefetchExecutor();
+        // If we request fees we need the separate tx requests
+        if (requestFee) {
+            return prefetchExecutor.submit(() -> {
+                Block btcdBlock = rpcService.requestBlock(blockHeight);
+                return new Tuple2<>(btcdBlock, requestTxs(btcdBlock));
+            });
+        } else {
+            return prefetchExecutor.submit(() -> rpcService.requestBlockWithTxs(blockHeight));
+        }
+    }
 
-    ///////////////////////////////////////////////////////////////////////////////////////////
-    // Private
-    ///////////////////////////////////////////////////////////////////////////////////////////
+    private synchronized ListeningExecutorService getPrefetchExecutor() {
+        checkState(!shutDownStarted, "FullNodeParser is shut down");
+        if (prefetchExecutor == null) {
+            prefetchExecutor = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(rpcService.getRpcMaxConnections(),
+                    new ThreadFactoryBuilder().setNameFormat("FullNodeParser-prefetch-%d").setDaemon(true).build()));
+        }
+        return prefetchExecutor;
+    }
+
+    private List<Tx> requestTxs(Block btcdBlock) throws BsqBlockchainException {
+        int blockHeight = btcdBlock.getHeight();
+        long startTs = System.currentTimeMillis();
+
+        // TODO if we use requestFee move code to later point once we found our bsq txs, so we only request it for bsq txs
+        if (requestFee) {
+            // We don't user foreach because scope for exception would not be in method body...
+            for (String txId : btcdBlock.getTx()) {
+                rpcService.requestFees(txId, blockHeight, feesByBlock);
+            }
+        }
+
+        List<Tx> txList = rpcService.requestTxs(btcdBlock.getTx(), blockHeight);
+        log.info("Requesting {} transactions took {} ms at blockHeight {}",
+                btcdBlock.getTx().size(), System.currentTimeMillis() - startTs, blockHeight);
+        return txList;
+    }
 
-    private List<Tx> findBsqTxsInBlock(Block btcdBlock) throws BsqBlockchainException {
+    private List<Tx> findBsqTxsInBlock(Block btcdBlock, List<Tx> txList) {
         int blockHeight = btcdBlock.getHeight();
         log.debug("Parse block at height={} ", blockHeight);
 
-        // Check if the new block is the same chain we have built on.
-        List<Tx> txList = new ArrayList<>();
         // We use a list as we want to maintain sorting of tx intra-block dependency
         List<Tx> bsqTxsInBlock = new ArrayList<>();
-        // We add all transactions to the block
-        long startTs = System.currentTimeMillis();
+        txList.forEach(tx -> checkForGenesisTx(blockHeight, bsqTxsInBlock, tx));
 
-        // We don't user foreach because scope for exception would not be in method body...
-        for (String txId : btcdBlock.getTx()) {
-
-            // TODO if we use requestFee move code to later point once we found our bsq txs, so we only request it for bsq txs
-            if (requestFee)
-                rpcService.requestFees(txId, blockHeight, feesByBlock);
-
-            final Tx tx = rpcService.requestTx(txId, blockHeight);
-            txList.add(tx);
-            checkForGenesisTx(blockHeight, bsqTxsInBlock, tx);
-        }
-        log.info("Requesting {} transactions took {} ms",
-                btcdBlock.getTx().size(), System.currentTimeMillis() - startTs);
-        // Worst case is that all txs in a block are depending on another, so only one get resolved at each iteration.
+        // Worst case is that all txs in a block are depending on another, so we get one dependency layer per tx.
         // Min tx size is 189 bytes (normally about 240 bytes), 1 MB can contain max. about 5300 txs (usually 2000).
-        // Realistically we don't expect more then a few recursive calls.
-        // There are some blocks with testing such dependency chains like block 130768 where at each iteration only
-        // one get resolved.
-        // Lately there is a patter with 24 iterations observed
-        recursiveFindBsqTxs(bsqTxsInBlock, txList, blockHeight, 0, 5300);
+        // There are some blocks with testing such dependency chains like block 130768.
+        // Lately there is a patter with 24 layers observed
+        findBsqTxs(bsqTxsInBlock, txList, blockHeight);
 
         return bsqTxsInBlock;
     }
@@ -35,7 +35,7 @@ public class FullNodeNetworkManager implements MessageListener, PeerManager.List
     private final NetworkNode networkNode;
     private final PeerManager peerManager;
     private final Broadcaster broadcaster;
-    private final ReadableBsqBlockChain readableBsqBlockChain;
+    private final SerializedBlocksCache serializedBlocksCache;
 
     // Key is connection UID
     private final Map<String, GetBsqBlocksRequestHandler> getBlocksRequestHandlers = new HashMap<>();
@@ -54,7 +54,7 @@ public class FullNodeNetworkManager implements MessageListener, PeerManager.List
         this.networkNode = networkNode;
         this.peerManager = peerManager;
         this.broadcaster = broadcaster;
-        this.readableBsqBlockChain = readableBsqBlockChain;
+        serializedBlocksCache = new SerializedBlocksCache(readableBsqBlockChain);
         // seedNodeAddresses can be empty (in case there is only 1 seed node, the seed node starting up has no other seed nodes)
 
         networkNode.addMessageListener(this);
@@ -113,7 +113,7 @@ public class FullNodeNetworkManager implements MessageListener, PeerManager.List
                 final String uid = connection.getUid();
                 if (!getBlocksRequestHandlers.containsKey(uid)) {
                     GetBsqBlocksRequestHandler requestHandler = new GetBsqBlocksRequestHandler(networkNode,
-                            readableBsqBlockChain,
+                            serializedBlocksCache,
                             new GetBsqBlocksRequestHandler.Listener() {
                                 @Override
                                 public void onComplete() {
@@ -6,13 +6,12 @@ import com.google.common.util.concurrent.SettableFuture;
 import io.bisq.common.Timer;
 import io.bisq.common.UserThread;
 import io.bisq.common.app.Log;
-import io.bisq.core.dao.blockchain.ReadableBsqBlockChain;
-import io.bisq.core.dao.blockchain.vo.BsqBlock;
 import io.bisq.core.dao.node.messages.GetBsqBlocksRequest;
 import io.bisq.core.dao.node.messages.GetBsqBlocksResponse;
 import io.bisq.network.p2p.network.CloseConnectionReason;
 import io.bisq.network.p2p.network.Connection;
 import io.bisq.network.p2p.network.NetworkNode;
+import io.bisq.generated.protobuffer.PB;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 
@@ -43,7 +42,7 @@ class GetBsqBlocksRequestHandler {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private final NetworkNode networkNode;
-    private final ReadableBsqBlockChain readableBsqBlockChain;
+    private final SerializedBlocksCache serializedBlocksCache;
     private final Listener listener;
     private Timer timeoutTimer;
     private boolean stopped;
@@ -53,9 +52,9 @@ class GetBsqBlocksRequestHandler {
     // Constructor
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    public GetBsqBlocksRequestHandler(NetworkNode networkNode, ReadableBsqBlockChain readableBsqBlockChain, Listener listener) {
+    public GetBsqBlocksRequestHandler(NetworkNode networkNode, SerializedBlocksCache serializedBlocksCache, Listener listener) {
         this.networkNode = networkNode;
-        this.readableBsqBlockChain = readableBsqBlockChain;
+        this.serializedBlocksCache = serializedBlocksCache;
         this.listener = listener;
     }
 
@@ -66,8 +65,9 @@ class GetBsqBlocksRequestHandler {
 
     public void onGetBsqBlocksRequest(GetBsqBlocksRequest getBsqBlocksRequest, final Connection connection) {
         Log.traceCall(getBsqBlocksRequest + "\n\tconnection=" + connection);
-        List<BsqBlock> bsqBlocks = readableBsqBlockChain.getClonedBlocksFrom(getBsqBlocksRequest.getFromBlockHeight());
-        final GetBsqBlocksResponse bsqBlocksResponse = new GetBsqBlocksResponse(bsqBlocks, getBsqBlocksRequest.getNonce());
+        List<PB.BsqBlock> serializedBsqBlocks = serializedBlocksCache.getSerializedBlocksFrom(getBsqBlocksRequest.getFromBlockHeight());
+        final GetBsqBlocksResponse bsqBlocksResponse = GetBsqBlocksResponse.fromSerializedBlocks(serializedBsqBlocks,
+                getBsqBlocksRequest.getNonce());
         log.debug("bsqBlocksResponse " + bsqBlocksResponse.getRequestNonce());
 
         if (timeoutTimer == null) {
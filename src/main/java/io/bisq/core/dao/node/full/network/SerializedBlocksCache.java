@@ -0,0 +1,81 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.dao.node.full.network;
+
+import io.bisq.core.dao.blockchain.ReadableBsqBlockChain;
+import io.bisq.core.dao.blockchain.vo.BsqBlock;
+import io.bisq.generated.protobuffer.PB;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Caches the serialized blocks for the most requested start heights. Lite nodes starting up at about the same time
+ * request mostly the same range, so we can serve them with the same serialized blocks.
+ * The cache gets cleared once the chain head changed, either by a new block or by a reorg to another block at the
+ * same height.
+ */
+@Slf4j
+class SerializedBlocksCache {
+    private static final int MAX_ENTRIES = 20;
+
+    private final ReadableBsqBlockChain readableBsqBlockChain;
+    // Access ordered so the least recently requested start height gets removed first
+    private final Map<Integer, List<PB.BsqBlock>> serializedBlocksByFromHeight =
+            new LinkedHashMap<Integer, List<PB.BsqBlock>>(MAX_ENTRIES, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, List<PB.BsqBlock>> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            };
+    private int chainHeadHeight;
+    @Nullable
+    private String chainHeadHash;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    SerializedBlocksCache(ReadableBsqBlockChain readableBsqBlockChain) {
+        this.readableBsqBlockChain = readableBsqBlockChain;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    synchronized List<PB.BsqBlock> getSerializedBlocksFrom(int fromBlockHeight) {
+        final int currentChainHeadHeight = readableBsqBlockChain.getChainHeadHeight();
+        final String currentChainHeadHash = readableBsqBlockChain.getBsqBlockAtHeight(currentChainHeadHeight)
+                .map(BsqBlock::getHash)
+                .orElse(null);
+        if (currentChainHeadHeight != chainHeadHeight || !Objects.equals(currentChainHeadHash, chainHeadHash)) {
+            serializedBlocksByFromHeight.clear();
+            chainHeadHeight = currentChainHeadHeight;
+            chainHeadHash = currentChainHeadHash;
+        }
+        return serializedBlocksByFromHeight.computeIfAbsent(fromBlockHeight,
+                readableBsqBlockChain::getSerializedBlocksFrom);
+    }
+}
@@ -18,6 +18,7 @@
 package io.bisq.core.dao.node.full.rpc;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 import com.google.inject.Inject;
 import com.neemre.btcdcli4j.core.BitcoindException;
 import com.neemre.btcdcli4j.core.CommunicationException;
@@ -30,22 +31,33 @@ import com.neemre.btcdcli4j.core.domain.enums.ScriptTypes;
 import com.neemre.btcdcli4j.daemon.BtcdDaemon;
 import com.neemre.btcdcli4j.daemon.BtcdDaemonImpl;
 import com.neemre.btcdcli4j.daemon.event.BlockListener;
+import io.bisq.common.util.Tuple2;
 import io.bisq.core.dao.DaoOptionKeys;
 import io.bisq.core.dao.blockchain.btcd.PubKeyScript;
 import io.bisq.core.dao.blockchain.exceptions.BsqBlockchainException;
 import io.bisq.core.dao.blockchain.vo.Tx;
 import io.bisq.core.dao.blockchain.vo.TxInput;
 import io.bisq.core.dao.blockchain.vo.TxOutput;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.bitcoinj.core.Coin;
-import org.bitcoinj.core.Utils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import javax.inject.Named;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -64,9 +76,15 @@ public class RpcService {
     private final String rpcPassword;
     private final String rpcPort;
     private final String rpcBlockPort;
+    private final int rpcMaxConnections;
+    private final int rpcBatchSize;
     private final boolean dumpBlockchainData;
+    private final TxJsonParser txJsonParser;
 
     private BtcdClient client;
+    private CloseableHttpClient httpClient;
+    // Set to false once the node responded with an error to a getblock request with verbosity 2 (older nodes)
+    private volatile boolean isVerboseGetBlockSupported = true;
     private BtcdDaemon daemon;
 
 
@@ -80,18 +98,28 @@ public class RpcService {
                       @Named(DaoOptionKeys.RPC_PASSWORD) String rpcPassword,
                       @Named(DaoOptionKeys.RPC_PORT) String rpcPort,
                       @Named(DaoOptionKeys.RPC_BLOCK_NOTIFICATION_PORT) String rpcBlockPort,
+                      @Named(DaoOptionKeys.RPC_MAX_CONNECTIONS) String rpcMaxConnections,
+                      @Named(DaoOptionKeys.RPC_BATCH_SIZE) String rpcBatchSize,
                       @Named(DaoOptionKeys.DUMP_BLOCKCHAIN_DATA) boolean dumpBlockchainData) {
         this.rpcUser = rpcUser;
         this.rpcPassword = rpcPassword;
         this.rpcPort = rpcPort;
         this.rpcBlockPort = rpcBlockPort;
+        this.rpcMaxConnections = rpcMaxConnections.isEmpty() ? 4 :
+                Math.max(1, parseIntOption(DaoOptionKeys.RPC_MAX_CONNECTIONS, rpcMaxConnections));
+        this.rpcBatchSize = rpcBatchSize.isEmpty() ? 500 :
+                Math.max(1, parseIntOption(DaoOptionKeys.RPC_BATCH_SIZE, rpcBatchSize));
         this.dumpBlockchainData = dumpBlockchainData;
+        txJsonParser = new TxJsonParser(dumpBlockchainData);
     }
 
     public void setup() throws BsqBlockchainException {
         try {
             long startTs = System.currentTimeMillis();
             PoolingHttpClientConnectionManager cm = new PoolingHttpClientConnectionManager();
+            // We only connect to one route (our local Bitcoin Core node), so the per route limit is our total limit.
+            cm.setMaxTotal(rpcMaxConnections);
+            cm.setDefaultMaxPerRoute(rpcMaxConnections);
             CloseableHttpClient httpProvider = HttpClients.custom().setConnectionManager(cm).build();
             Properties nodeConfig = new Properties();
             nodeConfig.setProperty("node.bitcoind.rpc.protocol", "http");
@@ -108,6 +136,7 @@ public class RpcService {
             daemon = new BtcdDaemonImpl(client);
             log.info("Setup took {} ms", System.currentTimeMillis() - startTs);
             this.client = client;
+            this.httpClient = httpProvider;
         } catch (BitcoindException | CommunicationException e) {
             if (e instanceof CommunicationException)
                 log.error("Probably Bitcoin core is not running or the rpc port is not set correctly. rpcPort=" + rpcPort);
@@ -140,6 +169,10 @@ public class RpcService {
         });
     }
 
+    public int getRpcMaxConnections() {
+        return rpcMaxConnections;
+    }
+
     public int requestChainHeadHeight() throws BitcoindException, CommunicationException {
         return client.getBlockCount();
     }
@@ -149,6 +182,25 @@ public class RpcService {
         return client.getBlock(blockHash);
     }
 
+    // We request the whole block with all decoded txs with one getblock request with verbosity 2. If the node does not
+    // support that we fall back to requesting the txs of the block separately.
+    public Tuple2<Block, List<Tx>> requestBlockWithTxs(int blockHeight)
+            throws BitcoindException, CommunicationException, BsqBlockchainException {
+        final String blockHash = client.getBlockHash(blockHeight);
+        if (isVerboseGetBlockSupported) {
+            Tuple2<Block, List<Tx>> blockWithTxs = requestVerboseBlock(blockHash, blockHeight);
+            if (blockWithTxs != null)
+                return blockWithTxs;
+
+            log.warn("getblock with verbosity 2 is not supported by the Bitcoin Core node. " +
+                    "We request the transactions separately.");
+            isVerboseGetBlockSupported = false;
+        }
+
+        final Block block = client.getBlock(blockHash);
+        return new Tuple2<>(block, requestTxs(block.getTx(), blockHeight));
+    }
+
     public void requestFees(String txId, int blockHeight, Map<Integer, Long> feesByBlock) throws BsqBlockchainException {
         try {
             Transaction transaction = requestTx(txId);
@@ -178,22 +230,8 @@ public class RpcService {
                     .map(rawOutput -> {
                                 byte[] opReturnData = null;
                                 final com.neemre.btcdcli4j.core.domain.PubKeyScript scriptPubKey = rawOutput.getScriptPubKey();
-                                if (scriptPubKey.getType().equals(ScriptTypes.NULL_DATA)) {
-                                    String[] chunks = scriptPubKey.getAsm().split(" ");
-                                    // TODO only store BSQ OP_RETURN date filtered by type byte
-
-                                    // We get on testnet a lot of "OP_RETURN 0" data, so we filter those away
-                                    if (chunks.length == 2 && chunks[0].equals("OP_RETURN") && !"0".equals(chunks[1])) {
-                                        try {
-                                            opReturnData = Utils.HEX.decode(chunks[1]);
-                                        } catch (Throwable t) {
-                                            // We get sometimes exceptions, seems BitcoinJ
-                                            // cannot handle all existing OP_RETURN data, but we ignore them
-                                            // anyway as our OP_RETURN data is valid in BitcoinJ
-                                            log.warn("Error at Utils.HEX.decode(chunks[1]): " + t.toString() + " / chunks[1]=" + chunks[1]);
-                                        }
-                                    }
-                                }
+                                if (scriptPubKey.getType().equals(ScriptTypes.NULL_DATA))
+                                    opReturnData = TxJsonParser.getOpReturnData(scriptPubKey.getAsm());
                         // We don't support raw MS which are the only case where scriptPubKey.getAddresses()>1
                                 String address = scriptPubKey.getAddresses() != null &&
                                         scriptPubKey.getAddresses().size() == 1 ? scriptPubKey.getAddresses().get(0) : null;
@@ -221,6 +259,78 @@ public class RpcService {
         }
     }
 
+    // If rpcBatchSize is larger than 1 we request the txs in JSON-RPC batches of up to rpcBatchSize txs, otherwise we
+    // use one request per tx.
+    public List<Tx> requestTxs(List<String> txIds, int blockHeight) throws BsqBlockchainException {
+        List<Tx> txList = new ArrayList<>(txIds.size());
+        if (rpcBatchSize > 1) {
+            for (List<String> batch : Lists.partition(txIds, rpcBatchSize)) {
+                txList.addAll(requestTxBatch(batch, blockHeight));
+            }
+        } else {
+            for (String txId : txIds) {
+                txList.add(requestTx(txId, blockHeight));
+            }
+        }
+        return txList;
+    }
+
+    private List<Tx> requestTxBatch(List<String> txIds, int blockHeight) throws BsqBlockchainException {
+        try {
+            HttpPost httpPost = getJsonRpcPost(TxJsonParser.getGetRawTransactionBatchRequest(txIds));
+            try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
+                final int statusCode = response.getStatusLine().getStatusCode();
+                if (statusCode != HttpStatus.SC_OK)
+                    throw new BsqBlockchainException("Batch request failed with HTTP status " + statusCode +
+                            " at blockHeight " + blockHeight);
+
+                return txJsonParser.parseGetRawTransactionBatchResponse(response.getEntity().getContent(),
+                        txIds.size(), blockHeight);
+            }
+        } catch (IOException e) {
+            log.error("error at requestTxBatch with blockHeight={}", blockHeight);
+            throw new BsqBlockchainException(e.getMessage(), e);
+        }
+    }
+
+    // Bitcoin Core responds with HTTP status 500 and the error in the body in case of an RPC error, so we parse the
+    // body for any status.
+    @Nullable
+    private Tuple2<Block, List<Tx>> requestVerboseBlock(String blockHash, int blockHeight) throws BsqBlockchainException {
+        try {
+            HttpPost httpPost = getJsonRpcPost(TxJsonParser.getGetBlockRequest(blockHash));
+            try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
+                final int statusCode = response.getStatusLine().getStatusCode();
+                if (statusCode != HttpStatus.SC_OK && statusCode != HttpStatus.SC_INTERNAL_SERVER_ERROR)
+                    throw new BsqBlockchainException("getblock request failed with HTTP status " + statusCode +
+                            " at blockHeight " + blockHeight);
+
+                return txJsonParser.parseGetBlockResponse(response.getEntity().getContent(), blockHeight);
+            }
+        } catch (IOException e) {
+            log.error("error at requestVerboseBlock with blockHeight={}", blockHeight);
+            throw new BsqBlockchainException(e.getMessage(), e);
+        }
+    }
+
+    private static int parseIntOption(String optionKey, String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for option --" + optionKey + ": '" + value +
+                    "'. A positive integer is expected.", e);
+        }
+    }
+
+    private HttpPost getJsonRpcPost(byte[] requestBody) {
+        HttpPost httpPost = new HttpPost("http://127.0.0.1:" + rpcPort);
+        String credentials = rpcUser + ":" + rpcPassword;
+        httpPost.setHeader(HttpHeaders.AUTHORIZATION, "Basic " +
+                Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)));
+        httpPost.setEntity(new ByteArrayEntity(requestBody, ContentType.APPLICATION_JSON));
+        return httpPost;
+    }
+
     private RawTransaction requestRawTransaction(String txId) throws BitcoindException, CommunicationException {
         return (RawTransaction) client.getRawTransaction(txId, 1);
     }
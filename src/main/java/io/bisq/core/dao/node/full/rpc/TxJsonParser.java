@@ -0,0 +1,475 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.dao.node.full.rpc;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingJsonFactory;
+import com.google.common.collect.ImmutableList;
+import com.neemre.btcdcli4j.core.domain.Block;
+import io.bisq.common.util.Tuple2;
+import io.bisq.core.dao.blockchain.btcd.PubKeyScript;
+import io.bisq.core.dao.blockchain.btcd.ScriptType;
+import io.bisq.core.dao.blockchain.exceptions.BsqBlockchainException;
+import io.bisq.core.dao.blockchain.vo.Tx;
+import io.bisq.core.dao.blockchain.vo.TxInput;
+import io.bisq.core.dao.blockchain.vo.TxOutput;
+import lombok.extern.slf4j.Slf4j;
+import org.bitcoinj.core.Utils;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes the JSON of verbose raw transactions and blocks as delivered by Bitcoin Core directly into our Tx, TxInput
+ * and TxOutput objects. We use the Jackson streaming API so we don't need to build a full object tree of the response.
+ */
+@Slf4j
+class TxJsonParser {
+    // We use the MappingJsonFactory so we can read error objects as tree
+    private static final JsonFactory JSON_FACTORY = new MappingJsonFactory();
+    // Error message of nodes which expect the verbose parameter of getblock to be a boolean
+    private static final String VERBOSITY_NOT_SUPPORTED_MESSAGE = "JSON value is not a boolean as expected";
+
+    private final boolean dumpBlockchainData;
+
+    TxJsonParser(boolean dumpBlockchainData) {
+        this.dumpBlockchainData = dumpBlockchainData;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    static byte[] getGetRawTransactionBatchRequest(List<String> txIds) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(outputStream)) {
+            generator.writeStartArray();
+            for (int i = 0; i < txIds.size(); i++) {
+                generator.writeStartObject();
+                generator.writeStringField("jsonrpc", "1.0");
+                // We use the index as id so we can map the responses back to the order of the request
+                generator.writeStringField("id", String.valueOf(i));
+                generator.writeStringField("method", "getrawtransaction");
+                generator.writeArrayFieldStart("params");
+                generator.writeString(txIds.get(i));
+                generator.writeNumber(1);
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+        return outputStream.toByteArray();
+    }
+
+    static byte[] getGetBlockRequest(String blockHash) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(outputStream)) {
+            generator.writeStartObject();
+            generator.writeStringField("jsonrpc", "1.0");
+            generator.writeStringField("id", "0");
+            generator.writeStringField("method", "getblock");
+            generator.writeArrayFieldStart("params");
+            generator.writeString(blockHash);
+            // Verbosity 2 delivers the decoded txs inside the block. Supported since Bitcoin Core 0.15.
+            generator.writeNumber(2);
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        return outputStream.toByteArray();
+    }
+
+    // Returns null if the node does not support verbosity 2, either by rejecting the parameter (nodes before 0.15
+    // expect a boolean) or by delivering only the txIds. Any other error (e.g. pruned block, node still loading the
+    // block index) is not related to the verbosity and gets thrown.
+    @Nullable
+    Tuple2<Block, List<Tx>> parseGetBlockResponse(InputStream inputStream, int blockHeight)
+            throws IOException, BsqBlockchainException {
+        try (JsonParser parser = JSON_FACTORY.createParser(inputStream)) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT);
+            Tuple2<Block, List<Tx>> result = null;
+            JsonNode error = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.VALUE_NULL)
+                    continue;
+
+                switch (fieldName) {
+                    case "result":
+                        result = parseBlock(parser, blockHeight);
+                        break;
+                    case "error":
+                        error = parser.readValueAsTree();
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+            if (error != null) {
+                if (error.path("message").asText().contains(VERBOSITY_NOT_SUPPORTED_MESSAGE)) {
+                    log.warn("getblock with verbosity 2 is not supported. error={}", error);
+                    return null;
+                }
+                throw new BsqBlockchainException("getblock failed at blockHeight " + blockHeight + ". error=" + error);
+            }
+            return result;
+        }
+    }
+
+    // The order of the responses in a batch is not guaranteed, so we sort them by the id we have used in the request.
+    List<Tx> parseGetRawTransactionBatchResponse(InputStream inputStream, int numRequests, int blockHeight)
+            throws IOException, BsqBlockchainException {
+        Tx[] txs = new Tx[numRequests];
+        try (JsonParser parser = JSON_FACTORY.createParser(inputStream)) {
+            expect(parser.nextToken(), JsonToken.START_ARRAY);
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                Tx tx = null;
+                String error = null;
+                String id = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String fieldName = parser.getCurrentName();
+                    JsonToken token = parser.nextToken();
+                    if (token == JsonToken.VALUE_NULL)
+                        continue;
+
+                    switch (fieldName) {
+                        case "result":
+                            tx = parseTx(parser, blockHeight, null, 0);
+                            break;
+                        case "error":
+                            error = parser.readValueAsTree().toString();
+                            break;
+                        case "id":
+                            id = parser.getText();
+                            break;
+                        default:
+                            parser.skipChildren();
+                    }
+                }
+                if (error != null)
+                    throw new BsqBlockchainException("getrawtransaction failed at blockHeight " + blockHeight +
+                            ". error=" + error);
+
+                int index = id != null ? Integer.parseInt(id) : -1;
+                if (tx == null || index < 0 || index >= numRequests)
+                    throw new BsqBlockchainException("Invalid getrawtransaction response at blockHeight " +
+                            blockHeight + ". id=" + id);
+                txs[index] = tx;
+            }
+        }
+
+        List<Tx> txList = new ArrayList<>(numRequests);
+        for (Tx tx : txs) {
+            if (tx == null)
+                throw new BsqBlockchainException("Missing response in getrawtransaction batch at blockHeight " +
+                        blockHeight);
+            txList.add(tx);
+        }
+        return txList;
+    }
+
+    // The parser has to be positioned at the START_OBJECT token of the tx. If the tx JSON does not contain the
+    // blockhash or time fields (e.g. txs inside a block) the given values are used.
+    Tx parseTx(JsonParser parser, int blockHeight, @Nullable String blockHash, long time) throws IOException {
+        expect(parser.getCurrentToken(), JsonToken.START_OBJECT);
+        String txId = null;
+        List<TxInput> txInputs = new ArrayList<>();
+        List<RawTxOutput> rawTxOutputs = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.VALUE_NULL)
+                continue;
+
+            switch (fieldName) {
+                case "txid":
+                    txId = parser.getText();
+                    break;
+                case "vin":
+                    expect(token, JsonToken.START_ARRAY);
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        TxInput txInput = parseTxInput(parser);
+                        if (txInput != null)
+                            txInputs.add(txInput);
+                    }
+                    break;
+                case "vout":
+                    expect(token, JsonToken.START_ARRAY);
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        RawTxOutput rawTxOutput = parseTxOutput(parser);
+                        if (rawTxOutput != null)
+                            rawTxOutputs.add(rawTxOutput);
+                    }
+                    break;
+                case "blockhash":
+                    blockHash = parser.getText();
+                    break;
+                case "time":
+                    // time is in seconds but we keep it in ms internally
+                    time = parser.getLongValue() * 1000;
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+
+        if (txId == null)
+            throw new IOException("Missing txid in tx JSON at blockHeight " + blockHeight);
+
+        List<TxOutput> txOutputs = new ArrayList<>(rawTxOutputs.size());
+        for (RawTxOutput rawTxOutput : rawTxOutputs) {
+            txOutputs.add(new TxOutput(rawTxOutput.index,
+                    rawTxOutput.value,
+                    txId,
+                    rawTxOutput.pubKeyScript,
+                    rawTxOutput.address,
+                    rawTxOutput.opReturnData,
+                    blockHeight));
+        }
+
+        return new Tx(txId,
+                blockHeight,
+                blockHash,
+                time,
+                ImmutableList.copyOf(txInputs),
+                ImmutableList.copyOf(txOutputs));
+    }
+
+    @Nullable
+    static byte[] getOpReturnData(String asm) {
+        String[] chunks = asm.split(" ");
+        // TODO only store BSQ OP_RETURN date filtered by type byte
+
+        // We get on testnet a lot of "OP_RETURN 0" data, so we filter those away
+        if (chunks.length == 2 && chunks[0].equals("OP_RETURN") && !"0".equals(chunks[1])) {
+            try {
+                return Utils.HEX.decode(chunks[1]);
+            } catch (Throwable t) {
+                // We get sometimes exceptions, seems BitcoinJ
+                // cannot handle all existing OP_RETURN data, but we ignore them
+                // anyway as our OP_RETURN data is valid in BitcoinJ
+                log.warn("Error at Utils.HEX.decode(chunks[1]): " + t.toString() + " / chunks[1]=" + chunks[1]);
+            }
+        }
+        return null;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Bitcoin Core delivers the block time after the txs, so we create the txs once the block is completely parsed.
+    @Nullable
+    private Tuple2<Block, List<Tx>> parseBlock(JsonParser parser, int blockHeight) throws IOException {
+        expect(parser.getCurrentToken(), JsonToken.START_OBJECT);
+        String hash = null;
+        String previousBlockHash = null;
+        Integer height = null;
+        long time = 0;
+        List<Tx> parsedTxs = new ArrayList<>();
+        boolean containsDecodedTxs = true;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.VALUE_NULL)
+                continue;
+
+            switch (fieldName) {
+                case "hash":
+                    hash = parser.getText();
+                    break;
+                case "height":
+                    height = parser.getIntValue();
+                    break;
+                case "previousblockhash":
+                    previousBlockHash = parser.getText();
+                    break;
+                case "time":
+                    time = parser.getLongValue();
+                    break;
+                case "tx":
+                    expect(token, JsonToken.START_ARRAY);
+                    while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                        if (token == JsonToken.START_OBJECT) {
+                            parsedTxs.add(parseTx(parser, blockHeight, null, 0));
+                        } else {
+                            containsDecodedTxs = false;
+                            parser.skipChildren();
+                        }
+                    }
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+
+        if (!containsDecodedTxs)
+            return null;
+
+        if (hash == null || height == null || height != blockHeight)
+            throw new IOException("Invalid getblock response at blockHeight " + blockHeight + ". height=" + height);
+
+        List<Tx> txList = new ArrayList<>(parsedTxs.size());
+        List<String> txIds = new ArrayList<>(parsedTxs.size());
+        for (Tx tx : parsedTxs) {
+            // time is in seconds but we keep it in ms internally
+            txList.add(new Tx(tx.getId(), blockHeight, hash, time * 1000, tx.getInputs(), tx.getOutputs()));
+            txIds.add(tx.getId());
+        }
+        Block block = new Block(hash, null, null, height, null, null, txIds, time, null, null, null, null,
+                previousBlockHash, null);
+        return new Tuple2<>(block, txList);
+    }
+
+    // Returns null for coinbase inputs
+    @Nullable
+    private TxInput parseTxInput(JsonParser parser) throws IOException {
+        String txId = null;
+        Integer index = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.VALUE_NULL)
+                continue;
+
+            if (fieldName.equals("txid"))
+                txId = parser.getText();
+            else if (fieldName.equals("vout"))
+                index = parser.getIntValue();
+            else
+                parser.skipChildren();
+        }
+        return txId != null && index != null ? new TxInput(txId, index) : null;
+    }
+
+    @Nullable
+    private RawTxOutput parseTxOutput(JsonParser parser) throws IOException {
+        Long value = null;
+        Integer index = null;
+        RawTxOutput rawTxOutput = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.VALUE_NULL)
+                continue;
+
+            switch (fieldName) {
+                case "value":
+                    value = parser.getDecimalValue().movePointRight(8).longValue();
+                    break;
+                case "n":
+                    index = parser.getIntValue();
+                    break;
+                case "scriptPubKey":
+                    rawTxOutput = parseScriptPubKey(parser);
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        if (value == null || index == null || rawTxOutput == null)
+            return null;
+
+        rawTxOutput.value = value;
+        rawTxOutput.index = index;
+        return rawTxOutput;
+    }
+
+    private RawTxOutput parseScriptPubKey(JsonParser parser) throws IOException {
+        expect(parser.getCurrentToken(), JsonToken.START_OBJECT);
+        int reqSigs = 0;
+        String type = null;
+        String asm = null;
+        String hex = null;
+        List<String> addresses = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.VALUE_NULL)
+                continue;
+
+            switch (fieldName) {
+                case "asm":
+                    asm = parser.getText();
+                    break;
+                case "hex":
+                    hex = parser.getText();
+                    break;
+                case "reqSigs":
+                    reqSigs = parser.getIntValue();
+                    break;
+                case "type":
+                    type = parser.getText();
+                    break;
+                case "addresses":
+                    addresses = new ArrayList<>();
+                    while (parser.nextToken() == JsonToken.VALUE_STRING)
+                        addresses.add(parser.getText());
+                    break;
+                case "address":
+                    // Newer Bitcoin Core versions deliver a single address field
+                    addresses = ImmutableList.of(parser.getText());
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+
+        RawTxOutput rawTxOutput = new RawTxOutput();
+        if (ScriptType.NULL_DATA.getName().equals(type) && asm != null)
+            rawTxOutput.opReturnData = getOpReturnData(asm);
+
+        // We don't support raw MS which are the only case where addresses.size()>1
+        rawTxOutput.address = addresses != null && addresses.size() == 1 ? addresses.get(0) : null;
+        if (dumpBlockchainData) {
+            rawTxOutput.pubKeyScript = new PubKeyScript(reqSigs,
+                    ScriptType.forName(type),
+                    addresses != null ? ImmutableList.copyOf(addresses) : null,
+                    asm,
+                    hex);
+        }
+        return rawTxOutput;
+    }
+
+    private static void expect(JsonToken token, JsonToken expected) throws IOException {
+        if (token != expected)
+            throw new IOException("Unexpected JSON token. Expected " + expected + " but got " + token);
+    }
+
+    // The txId might be delivered after the outputs, so we collect the output data before we create the TxOutput.
+    private static class RawTxOutput {
+        private int index;
+        private long value;
+        @Nullable
+        private String address;
+        @Nullable
+        private byte[] opReturnData;
+        @Nullable
+        private PubKeyScript pubKeyScript;
+    }
+}
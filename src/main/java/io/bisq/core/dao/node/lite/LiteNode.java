@@ -166,7 +166,7 @@ public class LiteNode extends BsqNode {
     private Consumer<Throwable> getErrorHandler() {
         return throwable -> {
             if (throwable instanceof BlockNotConnectingException) {
-                startReOrgFromLastSnapshot();
+                startReOrgFromLastSnapshot(((BlockNotConnectingException) throwable).getBlock());
             } else {
                 log.error(throwable.toString());
                 throwable.printStackTrace();
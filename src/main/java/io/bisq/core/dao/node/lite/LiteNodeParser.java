@@ -17,6 +17,7 @@
 
 package io.bisq.core.dao.node.lite;
 
+import io.bisq.core.dao.blockchain.ReadableBsqBlockChain;
 import io.bisq.core.dao.blockchain.exceptions.BlockNotConnectingException;
 import io.bisq.core.dao.blockchain.vo.BsqBlock;
 import io.bisq.core.dao.blockchain.vo.Tx;
@@ -42,8 +43,9 @@ public class LiteNodeParser extends BsqParser {
     @Inject
     public LiteNodeParser(BsqBlockController bsqBlockController,
                           GenesisTxController genesisTxController,
-                          BsqTxController bsqTxController) {
-        super(bsqBlockController, genesisTxController, bsqTxController);
+                          BsqTxController bsqTxController,
+                          ReadableBsqBlockChain readableBsqBlockChain) {
+        super(bsqBlockController, genesisTxController, bsqTxController, readableBsqBlockChain);
     }
 
     void parseBsqBlocks(List<BsqBlock> bsqBlocks,
@@ -61,7 +63,7 @@ public class LiteNodeParser extends BsqParser {
         List<Tx> txList = new ArrayList<>(bsqBlock.getTxs());
         List<Tx> bsqTxsInBlock = new ArrayList<>();
         bsqBlock.getTxs().forEach(tx -> checkForGenesisTx(blockHeight, bsqTxsInBlock, tx));
-        recursiveFindBsqTxs(bsqTxsInBlock, txList, blockHeight, 0, 5300);
+        findBsqTxs(bsqTxsInBlock, txList, blockHeight);
         bsqBlockController.addBlockIfValid(bsqBlock);
     }
 }
@@ -6,9 +6,11 @@ import io.bisq.core.dao.blockchain.vo.BsqBlock;
 import io.bisq.generated.protobuffer.PB;
 import io.bisq.network.p2p.DirectMessage;
 import io.bisq.network.p2p.ExtendedDataSizePermission;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -16,11 +18,20 @@ import java.util.stream.Collectors;
 @EqualsAndHashCode(callSuper = true)
 @Getter
 public final class GetBsqBlocksResponse extends NetworkEnvelope implements DirectMessage, ExtendedDataSizePermission {
-    private final List<BsqBlock> bsqBlocks;
+    @Nullable
+    private List<BsqBlock> bsqBlocks;
+    // Set if the full node sends already serialized blocks, so they don't get serialized again for each request.
+    @Nullable
+    @Getter(AccessLevel.NONE)
+    private final List<PB.BsqBlock> serializedBsqBlocks;
     private final int requestNonce;
 
     public GetBsqBlocksResponse(List<BsqBlock> bsqBlocks, int requestNonce) {
-        this(bsqBlocks, requestNonce, Version.getP2PMessageVersion());
+        this(bsqBlocks, null, requestNonce, Version.getP2PMessageVersion());
+    }
+
+    public static GetBsqBlocksResponse fromSerializedBlocks(List<PB.BsqBlock> serializedBsqBlocks, int requestNonce) {
+        return new GetBsqBlocksResponse(null, serializedBsqBlocks, requestNonce, Version.getP2PMessageVersion());
     }
 
 
@@ -28,9 +39,13 @@ public final class GetBsqBlocksResponse extends NetworkEnvelope implements Direc
     // PROTO BUFFER
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private GetBsqBlocksResponse(List<BsqBlock> bsqBlocks, int requestNonce, int messageVersion) {
+    private GetBsqBlocksResponse(@Nullable List<BsqBlock> bsqBlocks,
+                                 @Nullable List<PB.BsqBlock> serializedBsqBlocks,
+                                 int requestNonce,
+                                 int messageVersion) {
         super(messageVersion);
         this.bsqBlocks = bsqBlocks;
+        this.serializedBsqBlocks = serializedBsqBlocks;
         this.requestNonce = requestNonce;
     }
 
@@ -38,9 +53,11 @@ public final class GetBsqBlocksResponse extends NetworkEnvelope implements Direc
     public PB.NetworkEnvelope toProtoNetworkEnvelope() {
         return getNetworkEnvelopeBuilder()
                 .setGetBsqBlocksResponse(PB.GetBsqBlocksResponse.newBuilder()
-                        .addAllBsqBlocks(bsqBlocks.stream()
-                                .map(BsqBlock::toProtoMessage)
-                                .collect(Collectors.toList()))
+                        .addAllBsqBlocks(serializedBsqBlocks != null ?
+                                serializedBsqBlocks :
+                                getBsqBlocks().stream()
+                                        .map(BsqBlock::toProtoMessage)
+                                        .collect(Collectors.toList()))
                         .setRequestNonce(requestNonce))
                 .build();
     }
@@ -51,7 +68,23 @@ public final class GetBsqBlocksResponse extends NetworkEnvelope implements Direc
                 proto.getBsqBlocksList().stream()
                         .map(BsqBlock::fromProto)
                         .collect(Collectors.toList()),
+                null,
                 proto.getRequestNonce(),
                 messageVersion);
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public List<BsqBlock> getBsqBlocks() {
+        if (bsqBlocks == null)
+            bsqBlocks = serializedBsqBlocks != null ?
+                    serializedBsqBlocks.stream()
+                            .map(BsqBlock::fromProto)
+                            .collect(Collectors.toList()) :
+                    new ArrayList<>();
+        return bsqBlocks;
+    }
 }
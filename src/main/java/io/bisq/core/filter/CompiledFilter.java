@@ -0,0 +1,86 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.filter;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * The lists of a Filter compiled to hash sets, so the checks for each offer don't need to iterate the lists.
+ * The payment account filters are indexed by payment method ID, get method name and value.
+ * Immutable. Gets created once for each filter we receive.
+ */
+class CompiledFilter {
+    private final Set<String> bannedOfferIds;
+    private final Set<String> bannedNodeAddresses;
+    private final Set<String> bannedCurrencies;
+    private final Set<String> bannedPaymentMethods;
+    // Key is payment method ID, value is a map with the get method name as key
+    private final Map<String, Map<String, Map<String, PaymentAccountFilter>>> bannedPaymentAccounts;
+
+    CompiledFilter(Filter filter) {
+        bannedOfferIds = toSet(filter.getBannedOfferIds());
+        bannedNodeAddresses = toSet(filter.getBannedNodeAddress());
+        bannedCurrencies = toSet(filter.getBannedCurrencies());
+        bannedPaymentMethods = toSet(filter.getBannedPaymentMethods());
+
+        final Map<String, Map<String, Map<String, PaymentAccountFilter>>> map = new HashMap<>();
+        if (filter.getBannedPaymentAccounts() != null) {
+            filter.getBannedPaymentAccounts().forEach(paymentAccountFilter -> map
+                    .computeIfAbsent(paymentAccountFilter.getPaymentMethodId(), k -> new HashMap<>())
+                    .computeIfAbsent(paymentAccountFilter.getGetMethodName(), k -> new HashMap<>())
+                    .putIfAbsent(paymentAccountFilter.getValue(), paymentAccountFilter));
+        }
+        final ImmutableMap.Builder<String, Map<String, Map<String, PaymentAccountFilter>>> builder = ImmutableMap.builder();
+        map.forEach((paymentMethodId, filtersByGetMethodName) -> {
+            final ImmutableMap.Builder<String, Map<String, PaymentAccountFilter>> filtersBuilder = ImmutableMap.builder();
+            filtersByGetMethodName.forEach((getMethodName, filtersByValue) ->
+                    filtersBuilder.put(getMethodName, ImmutableMap.copyOf(filtersByValue)));
+            builder.put(paymentMethodId, filtersBuilder.build());
+        });
+        bannedPaymentAccounts = builder.build();
+    }
+
+    boolean isOfferIdBanned(String offerId) {
+        return bannedOfferIds.contains(offerId);
+    }
+
+    boolean isNodeAddressBanned(String fullAddress) {
+        return bannedNodeAddresses.contains(fullAddress);
+    }
+
+    boolean isCurrencyBanned(String currencyCode) {
+        return bannedCurrencies.contains(currencyCode);
+    }
+
+    boolean isPaymentMethodBanned(String paymentMethodId) {
+        return bannedPaymentMethods.contains(paymentMethodId);
+    }
+
+    // Key is the get method name, value is a map of the banned values to their filter
+    Map<String, Map<String, PaymentAccountFilter>> getBannedPaymentAccounts(String paymentMethodId) {
+        return bannedPaymentAccounts.getOrDefault(paymentMethodId, Collections.emptyMap());
+    }
+
+    private static Set<String> toSet(@Nullable List<String> list) {
+        return list != null ? ImmutableSet.copyOf(list) : Collections.emptySet();
+    }
+}
@@ -50,6 +50,7 @@ import java.math.BigInteger;
 import java.security.SignatureException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -79,6 +80,9 @@ public class FilterManager {
     private final ProvidersRepository providersRepository;
     private boolean ignoreDevMsg;
     private final ObjectProperty<Filter> filterProperty = new SimpleObjectProperty<>();
+    // Gets replaced when the filter changes, so we can read it from any thread without locking
+    @Nullable
+    private volatile CompiledFilter compiledFilter;
     private final List<Listener> listeners = new ArrayList<>();
 
     private final String pubKeyAsHex;
@@ -108,6 +112,10 @@ public class FilterManager {
         pubKeyAsHex = useDevPrivilegeKeys ?
                 DevEnv.DEV_PRIVILEGE_PUB_KEY :
                 "022ac7b7766b0aedff82962522c2c14fb8d1961dabef6e5cfd10edc679456a32f1";
+
+        // Registered before any other listener, so they see the compiled filter of the new filter
+        filterProperty.addListener((observable, oldValue, newValue) ->
+                compiledFilter = newValue != null ? new CompiledFilter(newValue) : null);
     }
 
     public void onAllServicesInitialized() {
@@ -312,51 +320,45 @@ public class FilterManager {
     }
 
     public boolean isCurrencyBanned(String currencyCode) {
-        return getFilter() != null &&
-                getFilter().getBannedCurrencies() != null &&
-                getFilter().getBannedCurrencies().stream()
-                        .anyMatch(e -> e.equals(currencyCode));
+        final CompiledFilter compiledFilter = this.compiledFilter;
+        return compiledFilter != null && compiledFilter.isCurrencyBanned(currencyCode);
     }
 
     public boolean isPaymentMethodBanned(PaymentMethod paymentMethod) {
-        return getFilter() != null &&
-                getFilter().getBannedPaymentMethods() != null &&
-                getFilter().getBannedPaymentMethods().stream()
-                        .anyMatch(e -> e.equals(paymentMethod.getId()));
+        final CompiledFilter compiledFilter = this.compiledFilter;
+        return compiledFilter != null && compiledFilter.isPaymentMethodBanned(paymentMethod.getId());
     }
 
     public boolean isOfferIdBanned(String offerId) {
-        return getFilter() != null &&
-                getFilter().getBannedOfferIds().stream()
-                        .anyMatch(e -> e.equals(offerId));
+        final CompiledFilter compiledFilter = this.compiledFilter;
+        return compiledFilter != null && compiledFilter.isOfferIdBanned(offerId);
     }
 
     public boolean isNodeAddressBanned(NodeAddress nodeAddress) {
-        return getFilter() != null &&
-                getFilter().getBannedNodeAddress().stream()
-                        .anyMatch(e -> e.equals(nodeAddress.getFullAddress()));
+        final CompiledFilter compiledFilter = this.compiledFilter;
+        return compiledFilter != null && compiledFilter.isNodeAddressBanned(nodeAddress.getFullAddress());
     }
 
     public boolean isPeersPaymentAccountDataAreBanned(PaymentAccountPayload paymentAccountPayload,
                                                       PaymentAccountFilter[] appliedPaymentAccountFilter) {
-        return getFilter() != null &&
-                getFilter().getBannedPaymentAccounts().stream()
-                        .anyMatch(paymentAccountFilter -> {
-                            final boolean samePaymentMethodId = paymentAccountFilter.getPaymentMethodId().equals(
-                                    paymentAccountPayload.getPaymentMethodId());
-                            if (samePaymentMethodId) {
-                                try {
-                                    Method method = paymentAccountPayload.getClass().getMethod(paymentAccountFilter.getGetMethodName());
-                                    String result = (String) method.invoke(paymentAccountPayload);
-                                    appliedPaymentAccountFilter[0] = paymentAccountFilter;
-                                    return result.equals(paymentAccountFilter.getValue());
-                                } catch (Throwable e) {
-                                    log.error(e.getMessage());
-                                    return false;
-                                }
-                            } else {
-                                return false;
-                            }
-                        });
+        final CompiledFilter compiledFilter = this.compiledFilter;
+        if (compiledFilter == null)
+            return false;
+
+        // We only call the get methods for which we have a filter of that payment method
+        for (Map.Entry<String, Map<String, PaymentAccountFilter>> entry :
+                compiledFilter.getBannedPaymentAccounts(paymentAccountPayload.getPaymentMethodId()).entrySet()) {
+            try {
+                final Method method = paymentAccountPayload.getClass().getMethod(entry.getKey());
+                final PaymentAccountFilter paymentAccountFilter = entry.getValue().get((String) method.invoke(paymentAccountPayload));
+                if (paymentAccountFilter != null) {
+                    appliedPaymentAccountFilter[0] = paymentAccountFilter;
+                    return true;
+                }
+            } catch (Throwable e) {
+                log.error(e.getMessage());
+            }
+        }
+        return false;
     }
 }
@@ -0,0 +1,178 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.offer;
+
+import io.bisq.common.locale.CurrencyUtil;
+import lombok.Value;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Order book index of the offers in the P2P network. Maintained incrementally from the add and remove events of the
+ * P2P data storage. We keep one Offer instance per OfferPayload.
+ * <p>
+ * The offers of each market side (currency code and direction) are sorted from the best to the worst price for the
+ * taker. Fixed price offers are sorted by price. Market based price offers are sorted by their margin, as their price
+ * depends on the current market price, but the order is the same for any market price.
+ * <p>
+ * Not thread safe. Only accessed from the user thread.
+ */
+class OfferBookIndex {
+
+    @Value
+    private static class MarketSide {
+        private final String currencyCode;
+        private final OfferPayload.Direction direction;
+    }
+
+    private final Map<String, Offer> offersById = new HashMap<>();
+    private final Map<MarketSide, NavigableSet<Offer>> fixedPriceOffers = new HashMap<>();
+    private final Map<MarketSide, NavigableSet<Offer>> marketBasedPriceOffers = new HashMap<>();
+    // Keyed by offer ID as the hashCode of Offer changes with its state
+    private final Map<String, Map<String, Offer>> offersByPaymentMethodId = new HashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Returns the existing offer if we have already indexed the same payload
+    Offer add(Offer offer) {
+        final Offer existing = offersById.get(offer.getId());
+        if (existing != null) {
+            if (existing.getOfferPayload().equals(offer.getOfferPayload()))
+                return existing;
+            remove(existing.getId());
+        }
+
+        offersById.put(offer.getId(), offer);
+        getSortedOffers(offer).add(offer);
+        offersByPaymentMethodId.computeIfAbsent(offer.getOfferPayload().getPaymentMethodId(), k -> new LinkedHashMap<>())
+                .put(offer.getId(), offer);
+        return offer;
+    }
+
+    @Nullable
+    Offer remove(String offerId) {
+        final Offer offer = offersById.remove(offerId);
+        if (offer != null) {
+            getSortedOffers(offer).remove(offer);
+            final String paymentMethodId = offer.getOfferPayload().getPaymentMethodId();
+            final Map<String, Offer> offers = offersByPaymentMethodId.get(paymentMethodId);
+            if (offers != null) {
+                offers.remove(offerId);
+                if (offers.isEmpty())
+                    offersByPaymentMethodId.remove(paymentMethodId);
+            }
+        }
+        return offer;
+    }
+
+    @Nullable
+    Offer get(String offerId) {
+        return offersById.get(offerId);
+    }
+
+    Collection<Offer> getOffers() {
+        return offersById.values();
+    }
+
+    Collection<Offer> getOffersForPaymentMethod(String paymentMethodId) {
+        final Map<String, Offer> offers = offersByPaymentMethodId.get(paymentMethodId);
+        return offers != null ? offers.values() : Collections.emptyList();
+    }
+
+    // Merges the sorted fixed price and market based price offers. Market based price offers are skipped if we don't
+    // have a market price.
+    List<Offer> getBestOffers(String currencyCode, OfferPayload.Direction direction, int numOffers) {
+        final MarketSide marketSide = new MarketSide(currencyCode, direction);
+        final boolean isHigherPriceBetter = isHigherPriceBetter(currencyCode, direction);
+        final Iterator<Offer> fixedIterator = getIterator(fixedPriceOffers.get(marketSide));
+        final Iterator<Offer> marketBasedIterator = getIterator(marketBasedPriceOffers.get(marketSide));
+
+        final List<Offer> bestOffers = new ArrayList<>();
+        Offer fixed = next(fixedIterator);
+        Offer marketBased = nextWithPrice(marketBasedIterator);
+        while (bestOffers.size() < numOffers && (fixed != null || marketBased != null)) {
+            final boolean takeFixed;
+            if (fixed == null) {
+                takeFixed = false;
+            } else if (marketBased == null) {
+                takeFixed = true;
+            } else {
+                final long fixedPrice = fixed.getOfferPayload().getPrice();
+                final long marketBasedPrice = marketBased.getPrice().getValue();
+                takeFixed = isHigherPriceBetter ? fixedPrice >= marketBasedPrice : fixedPrice <= marketBasedPrice;
+            }
+
+            if (takeFixed) {
+                bestOffers.add(fixed);
+                fixed = next(fixedIterator);
+            } else {
+                bestOffers.add(marketBased);
+                marketBased = nextWithPrice(marketBasedIterator);
+            }
+        }
+        return bestOffers;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private NavigableSet<Offer> getSortedOffers(Offer offer) {
+        final MarketSide marketSide = new MarketSide(offer.getCurrencyCode(), offer.getDirection());
+        if (offer.isUseMarketBasedPrice()) {
+            // A lower margin is always the better price for the taker, see Offer.getPrice
+            return marketBasedPriceOffers.computeIfAbsent(marketSide,
+                    k -> new TreeSet<>(Comparator.comparingDouble(Offer::getMarketPriceMargin)
+                            .thenComparing(Offer::getId)));
+        } else {
+            final Comparator<Offer> byPrice = Comparator.comparingLong(e -> e.getOfferPayload().getPrice());
+            return fixedPriceOffers.computeIfAbsent(marketSide,
+                    k -> new TreeSet<>((isHigherPriceBetter(k.getCurrencyCode(), k.getDirection()) ? byPrice.reversed() : byPrice)
+                            .thenComparing(Offer::getId)));
+        }
+    }
+
+    // For fiat the taker of a buy offer sells BTC, so the highest price is the best. Altcoin prices are inverted.
+    private static boolean isHigherPriceBetter(String currencyCode, OfferPayload.Direction direction) {
+        return CurrencyUtil.isCryptoCurrency(currencyCode) ?
+                direction == OfferPayload.Direction.SELL :
+                direction == OfferPayload.Direction.BUY;
+    }
+
+    private static Iterator<Offer> getIterator(@Nullable NavigableSet<Offer> offers) {
+        return offers != null ? offers.iterator() : Collections.emptyIterator();
+    }
+
+    @Nullable
+    private static Offer next(Iterator<Offer> iterator) {
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    // All market based price offers of a market side depend on the same market price, so if one has no price
+    // none of them has.
+    @Nullable
+    private static Offer nextWithPrice(Iterator<Offer> iterator) {
+        final Offer offer = next(iterator);
+        return offer != null && offer.getPrice() != null ? offer : null;
+    }
+}
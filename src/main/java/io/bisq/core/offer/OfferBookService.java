@@ -18,12 +18,9 @@
 package io.bisq.core.offer;
 
 import com.google.inject.name.Named;
-import io.bisq.common.UserThread;
 import io.bisq.common.handlers.ErrorMessageHandler;
 import io.bisq.common.handlers.ResultHandler;
-import io.bisq.common.storage.JsonFileManager;
 import io.bisq.common.storage.Storage;
-import io.bisq.common.util.Utilities;
 import io.bisq.core.app.AppOptionKeys;
 import io.bisq.core.provider.price.PriceFeedService;
 import io.bisq.network.p2p.BootstrapListener;
@@ -36,13 +33,14 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 import java.io.File;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.stream.Collectors;
 
 /**
  * Handles storage and retrieval of offers.
- * Uses an invalidation flag to only request the full offer map in case there was a change (anyone has added or removed an offer).
+ * The offers are kept in an OfferBookIndex which gets updated when offers are added to or removed from the P2P network.
  */
 public class OfferBookService {
     private static final Logger log = LoggerFactory.getLogger(OfferBookService.class);
@@ -56,7 +54,9 @@ public class OfferBookService {
     private final P2PService p2PService;
     private final PriceFeedService priceFeedService;
     private final List<OfferBookChangedListener> offerBookChangedListeners = new LinkedList<>();
-    private final JsonFileManager jsonFileManager;
+    @Nullable
+    private final OffersJsonDumper offersJsonDumper;
+    private final OfferBookIndex offerBookIndex = new OfferBookIndex();
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -67,53 +67,52 @@ public class OfferBookService {
     public OfferBookService(P2PService p2PService,
                             PriceFeedService priceFeedService,
                             @Named(Storage.STORAGE_DIR) File storageDir,
-                            @Named(AppOptionKeys.DUMP_STATISTICS) boolean dumpStatistics) {
+                            @Named(AppOptionKeys.DUMP_STATISTICS) boolean dumpStatistics,
+                            @Named(AppOptionKeys.DUMP_STATISTICS_INTERVAL) long dumpStatisticsInterval,
+                            @Named(AppOptionKeys.DUMP_STATISTICS_PER_MARKET) boolean dumpStatisticsPerMarket) {
         this.p2PService = p2PService;
         this.priceFeedService = priceFeedService;
-        jsonFileManager = new JsonFileManager(storageDir);
+        offersJsonDumper = dumpStatistics ?
+                new OffersJsonDumper(storageDir, this::getOfferForJsonList, dumpStatisticsInterval, dumpStatisticsPerMarket) :
+                null;
+
+        p2PService.getDataMap().values().forEach(this::addToOfferBookIndex);
 
         p2PService.addHashSetChangedListener(new HashMapChangedListener() {
             @Override
             public void onAdded(ProtectedStorageEntry data) {
-                offerBookChangedListeners.stream().forEach(listener -> {
-                    if (data.getProtectedStoragePayload() instanceof OfferPayload) {
-                        OfferPayload offerPayload = (OfferPayload) data.getProtectedStoragePayload();
-                        Offer offer = new Offer(offerPayload);
-                        offer.setPriceFeedService(priceFeedService);
-                        listener.onAdded(offer);
-                    }
-                });
+                Offer offer = addToOfferBookIndex(data);
+                if (offer != null)
+                    offerBookChangedListeners.forEach(listener -> listener.onAdded(offer));
             }
 
             @Override
             public void onRemoved(ProtectedStorageEntry data) {
-                offerBookChangedListeners.stream().forEach(listener -> {
-                    if (data.getProtectedStoragePayload() instanceof OfferPayload) {
-                        OfferPayload offerPayload = (OfferPayload) data.getProtectedStoragePayload();
-                        Offer offer = new Offer(offerPayload);
-                        offer.setPriceFeedService(priceFeedService);
-                        listener.onRemoved(offer);
-                    }
-                });
+                if (data.getProtectedStoragePayload() instanceof OfferPayload) {
+                    OfferPayload offerPayload = (OfferPayload) data.getProtectedStoragePayload();
+                    Offer removed = offerBookIndex.remove(offerPayload.getId());
+                    Offer offer = removed != null ? removed : getOffer(offerPayload);
+                    offerBookChangedListeners.forEach(listener -> listener.onRemoved(offer));
+                }
             }
         });
 
-        if (dumpStatistics) {
+        if (offersJsonDumper != null) {
             p2PService.addP2PServiceListener(new BootstrapListener() {
                 @Override
                 public void onUpdatedDataReceived() {
                     addOfferBookChangedListener(new OfferBookChangedListener() {
                         @Override
                         public void onAdded(Offer offer) {
-                            doDumpStatistics();
+                            offersJsonDumper.requestDump();
                         }
 
                         @Override
                         public void onRemoved(Offer offer) {
-                            doDumpStatistics();
+                            offersJsonDumper.requestDump();
                         }
                     });
-                    UserThread.runAfter(OfferBookService.this::doDumpStatistics, 1);
+                    offersJsonDumper.requestDump();
                 }
             });
         }
@@ -164,15 +163,17 @@ public class OfferBookService {
     }
 
     public List<Offer> getOffers() {
-        return p2PService.getDataMap().values().stream()
-                .filter(data -> data.getProtectedStoragePayload() instanceof OfferPayload)
-                .map(data -> {
-                    OfferPayload offerPayload = (OfferPayload) data.getProtectedStoragePayload();
-                    Offer offer = new Offer(offerPayload);
-                    offer.setPriceFeedService(priceFeedService);
-                    return offer;
-                })
-                .collect(Collectors.toList());
+        return new ArrayList<>(offerBookIndex.getOffers());
+    }
+
+    // Returns the best offers for the taker sorted by price. Offers with market based price are only included if a
+    // market price is available.
+    public List<Offer> getBestOffers(String currencyCode, OfferPayload.Direction direction, int numOffers) {
+        return offerBookIndex.getBestOffers(currencyCode, direction, numOffers);
+    }
+
+    public List<Offer> getOffersForPaymentMethod(String paymentMethodId) {
+        return new ArrayList<>(offerBookIndex.getOffersForPaymentMethod(paymentMethodId));
     }
 
     public void removeOfferAtShutDown(OfferPayload offerPayload) {
@@ -193,10 +194,24 @@ public class OfferBookService {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private void doDumpStatistics() {
+    @Nullable
+    private Offer addToOfferBookIndex(ProtectedStorageEntry data) {
+        if (data.getProtectedStoragePayload() instanceof OfferPayload)
+            return offerBookIndex.add(getOffer((OfferPayload) data.getProtectedStoragePayload()));
+        else
+            return null;
+    }
+
+    private Offer getOffer(OfferPayload offerPayload) {
+        Offer offer = new Offer(offerPayload);
+        offer.setPriceFeedService(priceFeedService);
+        return offer;
+    }
+
+    private List<OfferForJson> getOfferForJsonList() {
         // We filter the case that it is a MarketBasedPrice but the price is not available
         // That should only be possible if the price feed provider is not available
-        final List<OfferForJson> offerForJsonList = getOffers().stream()
+        return offerBookIndex.getOffers().stream()
                 .filter(offer -> !offer.isUseMarketBasedPrice() || priceFeedService.getMarketPrice(offer.getCurrencyCode()) != null)
                 .map(offer -> {
                     try {
@@ -219,6 +234,5 @@ public class OfferBookService {
                 })
                 .filter(e -> e != null)
                 .collect(Collectors.toList());
-        jsonFileManager.writeToDisc(Utilities.objectToJson(offerForJsonList), "offers_statistics");
     }
 }
@@ -0,0 +1,138 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.offer;
+
+import com.google.common.util.concurrent.ListeningExecutorService;
+import io.bisq.common.UserThread;
+import io.bisq.common.util.Utilities;
+import io.bisq.core.util.AtomicFileWriter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Writes the offers_statistics json file for nodes running with the dumpStatistics option.
+ * <p>
+ * All changes within the dump interval are coalesced to one dump. The OfferForJson list is created at the user
+ * thread, the json gets written element by element in a separate thread to a temp file which replaces the old file.
+ * Optionally we write one file per market into the offers_statistics directory.
+ */
+@Slf4j
+class OffersJsonDumper {
+    private static final String FILE_NAME = "offers_statistics";
+
+    private final File storageDir;
+    private final Supplier<List<OfferForJson>> offerForJsonListSupplier;
+    private final long dumpIntervalMs;
+    private final boolean dumpPerMarket;
+    private final ListeningExecutorService executor = Utilities.getListeningSingleThreadExecutor("OffersJsonDumper");
+
+    private boolean dumpScheduled;
+    private long lastDumpTs;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    OffersJsonDumper(File storageDir,
+                     Supplier<List<OfferForJson>> offerForJsonListSupplier,
+                     long dumpIntervalSec,
+                     boolean dumpPerMarket) {
+        this.storageDir = storageDir;
+        this.offerForJsonListSupplier = offerForJsonListSupplier;
+        this.dumpIntervalMs = TimeUnit.SECONDS.toMillis(dumpIntervalSec);
+        this.dumpPerMarket = dumpPerMarket;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Called at any change of the offer book
+    void requestDump() {
+        if (!dumpScheduled) {
+            dumpScheduled = true;
+            final long delay = Math.max(0, lastDumpTs + dumpIntervalMs - System.currentTimeMillis());
+            UserThread.runAfter(this::dump, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void dump() {
+        dumpScheduled = false;
+        lastDumpTs = System.currentTimeMillis();
+        final List<OfferForJson> offerForJsonList = offerForJsonListSupplier.get();
+        executor.submit(() -> {
+            writeToDisc(offerForJsonList, new File(storageDir, FILE_NAME + ".json"));
+
+            if (dumpPerMarket) {
+                final File marketDir = new File(storageDir, FILE_NAME);
+                if (!marketDir.exists() && !marketDir.mkdir())
+                    log.warn("make marketDir failed.\nmarketDir=" + marketDir.getAbsolutePath());
+
+                final Map<String, List<OfferForJson>> offersByMarket = offerForJsonList.stream()
+                        .collect(Collectors.groupingBy(offerForJson -> offerForJson.currencyPair));
+                offersByMarket.forEach((currencyPair, offers) -> writeToDisc(offers,
+                        new File(marketDir, currencyPair.replace("/", "_").toLowerCase() + ".json")));
+
+                // Remove files of markets without offers
+                final File[] files = marketDir.listFiles();
+                if (files != null) {
+                    for (File file : files) {
+                        final String currencyPair = file.getName().replace(".json", "").replace("_", "/").toUpperCase();
+                        if (!offersByMarket.containsKey(currencyPair) && !file.delete())
+                            log.warn("Could not delete " + file.getAbsolutePath());
+                    }
+                }
+            }
+        });
+    }
+
+    private void writeToDisc(List<OfferForJson> offerForJsonList, File file) {
+        try {
+            AtomicFileWriter.write(file, outputStream -> {
+                final Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+                writer.write("[");
+                for (int i = 0; i < offerForJsonList.size(); i++) {
+                    if (i > 0)
+                        writer.write(",\n");
+                    writer.write(Utilities.objectToJson(offerForJsonList.get(i)));
+                }
+                writer.write("]");
+                writer.flush();
+            });
+        } catch (IOException e) {
+            log.error("Writing " + file.getAbsolutePath() + " failed. " + e.toString());
+        }
+    }
+}
@@ -405,11 +405,11 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
     }
 
     public Optional<OpenOffer> findOpenOffer(String offerId) {
-        return openOffers.stream().filter(openOffer -> openOffer.getId().equals(offerId)).findAny();
+        return openOffers.getTradableById(offerId);
     }
 
     public Optional<OpenOffer> getOpenOfferById(String offerId) {
-        return openOffers.stream().filter(e -> e.getId().equals(offerId)).findFirst();
+        return openOffers.getTradableById(offerId);
     }
 
 
@@ -31,10 +31,15 @@ import io.bisq.core.user.User;
 import io.bisq.network.p2p.BootstrapListener;
 import io.bisq.network.p2p.P2PService;
 import io.bisq.network.p2p.storage.P2PDataStorage;
+import io.bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import org.bitcoinj.core.Coin;
+import org.bitcoinj.core.Sha256Hash;
+import org.spongycastle.crypto.digests.RIPEMD160Digest;
 
 import javax.inject.Inject;
+import java.security.MessageDigest;
 import java.security.PublicKey;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
@@ -48,6 +53,29 @@ public class AccountAgeWitnessService {
     private static final Date SECOND_PHASE = Utilities.getUTCDate(2018, GregorianCalendar.JANUARY, 15);
     public static final Date FULL_ACTIVATION = Utilities.getUTCDate(2018, GregorianCalendar.FEBRUARY, 15);
 
+    private static final int MAX_CACHE_SIZE = 10000;
+
+    @Value
+    private static class WitnessHashKey {
+        private final byte[] ageWitnessInputData;
+        private final byte[] salt;
+        private final byte[] signaturePubKeyBytes;
+    }
+
+    private static class LruCache<K, V> extends LinkedHashMap<K, V> {
+        private final int maxSize;
+
+        LruCache(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > maxSize;
+        }
+    }
+
     public enum AccountAge {
         LESS_ONE_MONTH,
         ONE_TO_TWO_MONTHS,
@@ -58,7 +86,14 @@ public class AccountAgeWitnessService {
     private final P2PService p2PService;
     private final User user;
 
-    private final Map<P2PDataStorage.ByteArray, AccountAgeWitness> accountAgeWitnessMap = new HashMap<>();
+    // The witnesses are looked up in the P2P data storage which holds them anyway, so we don't keep another copy.
+    // The caches are not thread safe. The service is only accessed from the user thread.
+
+    // The witness hash is derived from the account data, the salt and the pub key. Computing it takes 2 hash
+    // operations and we need it several times per offer and trade, so we cache it.
+    private final Map<WitnessHashKey, byte[]> witnessHashCache = new LruCache<>(MAX_CACHE_SIZE);
+    // Contains empty values for unknown hashes. Gets cleared when we add a new witness.
+    private final Map<String, Optional<AccountAgeWitness>> witnessByHashAsHexCache = new LruCache<>(MAX_CACHE_SIZE);
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -81,13 +116,7 @@ public class AccountAgeWitnessService {
     public void onAllServicesInitialized() {
         p2PService.getP2PDataStorage().addPersistableNetworkPayloadMapListener(payload -> {
             if (payload instanceof AccountAgeWitness)
-                addToMap((AccountAgeWitness) payload);
-        });
-
-        // At startup the P2PDataStorage initializes earlier, otherwise we ge the listener called.
-        p2PService.getP2PDataStorage().getPersistableNetworkPayloadCollection().getMap().values().forEach(e -> {
-            if (e instanceof AccountAgeWitness)
-                addToMap((AccountAgeWitness) e);
+                onWitnessAdded((AccountAgeWitness) payload);
         });
 
         if (p2PService.isBootstrapped()) {
@@ -115,10 +144,10 @@ public class AccountAgeWitnessService {
                     });
     }
 
-    private void addToMap(AccountAgeWitness accountAgeWitness) {
-        log.debug("addToMap hash=" + Utilities.bytesAsHexString(accountAgeWitness.getHash()));
-        if (!accountAgeWitnessMap.containsKey(accountAgeWitness.getHashAsByteArray()))
-            accountAgeWitnessMap.put(accountAgeWitness.getHashAsByteArray(), accountAgeWitness);
+    // The cache might contain the hash of the new witness as unknown
+    void onWitnessAdded(AccountAgeWitness accountAgeWitness) {
+        log.debug("onWitnessAdded hash=" + Utilities.bytesAsHexString(accountAgeWitness.getHash()));
+        witnessByHashAsHexCache.clear();
     }
 
 
@@ -128,7 +157,7 @@ public class AccountAgeWitnessService {
 
     public void publishMyAccountAgeWitness(PaymentAccountPayload paymentAccountPayload) {
         AccountAgeWitness accountAgeWitness = getMyWitness(paymentAccountPayload);
-        if (!accountAgeWitnessMap.containsKey(accountAgeWitness.getHashAsByteArray()))
+        if (!getWitnessByHash(accountAgeWitness.getHash()).isPresent())
             p2PService.addPersistableNetworkPayload(accountAgeWitness, false);
     }
 
@@ -137,32 +166,54 @@ public class AccountAgeWitnessService {
     }
 
     public AccountAgeWitness getNewWitness(PaymentAccountPayload paymentAccountPayload, PubKeyRing pubKeyRing) {
-        byte[] accountInputDataWithSalt = getAccountInputDataWithSalt(paymentAccountPayload);
-        byte[] hash = Hash.getSha256Ripemd160hash(Utilities.concatenateByteArrays(accountInputDataWithSalt,
-                pubKeyRing.getSignaturePubKeyBytes()));
-        return new AccountAgeWitness(hash, new Date().getTime());
+        return new AccountAgeWitness(getWitnessHash(paymentAccountPayload, pubKeyRing), new Date().getTime());
     }
 
     public Optional<AccountAgeWitness> findWitness(PaymentAccountPayload paymentAccountPayload, PubKeyRing pubKeyRing) {
-        byte[] accountInputDataWithSalt = getAccountInputDataWithSalt(paymentAccountPayload);
-        byte[] hash = Hash.getSha256Ripemd160hash(Utilities.concatenateByteArrays(accountInputDataWithSalt,
-                pubKeyRing.getSignaturePubKeyBytes()));
+        return getWitnessByHash(getWitnessHash(paymentAccountPayload, pubKeyRing));
+    }
 
-        return getWitnessByHash(hash);
+    // Sha256Ripemd160 hash of the concatenated account input data, salt and signature pub key
+    byte[] getWitnessHash(PaymentAccountPayload paymentAccountPayload, PubKeyRing pubKeyRing) {
+        final WitnessHashKey key = new WitnessHashKey(paymentAccountPayload.getAgeWitnessInputData(),
+                paymentAccountPayload.getSalt(),
+                pubKeyRing.getSignaturePubKeyBytes());
+        final byte[] cachedHash = witnessHashCache.get(key);
+        if (cachedHash != null)
+            return cachedHash;
+
+        final byte[] hash = getSha256Ripemd160hash(key.getAgeWitnessInputData(), key.getSalt(), key.getSignaturePubKeyBytes());
+        witnessHashCache.put(key, hash);
+        return hash;
     }
 
-    public Optional<AccountAgeWitness> getWitnessByHash(byte[] hash) {
-        P2PDataStorage.ByteArray hashAsByteArray = new P2PDataStorage.ByteArray(hash);
+    // Same as Hash.getSha256Ripemd160hash of the concatenated data, but we update the digest with the parts instead
+    // of concatenating them
+    static byte[] getSha256Ripemd160hash(byte[]... data) {
+        final MessageDigest sha256Digest = Sha256Hash.newDigest();
+        for (byte[] part : data)
+            sha256Digest.update(part);
+        final byte[] sha256Hash = sha256Digest.digest();
+        final RIPEMD160Digest ripemd160Digest = new RIPEMD160Digest();
+        ripemd160Digest.update(sha256Hash, 0, sha256Hash.length);
+        final byte[] hash = new byte[ripemd160Digest.getDigestSize()];
+        ripemd160Digest.doFinal(hash, 0);
+        return hash;
+    }
 
-        final boolean containsKey = accountAgeWitnessMap.containsKey(hashAsByteArray);
-        if (!containsKey)
-            log.debug("hash not found in accountAgeWitnessMap");
+    public Optional<AccountAgeWitness> getWitnessByHash(byte[] hash) {
+        final PersistableNetworkPayload payload = p2PService.getP2PDataStorage().getPersistableNetworkPayloadCollection()
+                .getMap().get(new P2PDataStorage.ByteArray(hash));
+        if (!(payload instanceof AccountAgeWitness)) {
+            log.debug("hash not found in P2PDataStorage");
+            return Optional.empty();
+        }
 
-        return accountAgeWitnessMap.containsKey(hashAsByteArray) ? Optional.of(accountAgeWitnessMap.get(hashAsByteArray)) : Optional.<AccountAgeWitness>empty();
+        return Optional.of((AccountAgeWitness) payload);
     }
 
     public Optional<AccountAgeWitness> getWitnessByHashAsHex(String hashAsHex) {
-        return getWitnessByHash(Utilities.decodeFromHex(hashAsHex));
+        return witnessByHashAsHexCache.computeIfAbsent(hashAsHex, k -> getWitnessByHash(Utilities.decodeFromHex(k)));
     }
 
     public long getAccountAge(AccountAgeWitness accountAgeWitness, Date now) {
@@ -312,8 +363,7 @@ public class AccountAgeWitnessService {
         if (!verifyPeersCurrentDate(peersCurrentDate, errorMessageHandler))
             return false;
 
-        final byte[] peersAccountInputDataWithSalt = Utilities.concatenateByteArrays(peersPaymentAccountPayload.getAgeWitnessInputData(), peersPaymentAccountPayload.getSalt());
-        byte[] hash = Hash.getSha256Ripemd160hash(Utilities.concatenateByteArrays(peersAccountInputDataWithSalt, peersPubKeyRing.getSignaturePubKeyBytes()));
+        byte[] hash = getWitnessHash(peersPaymentAccountPayload, peersPubKeyRing);
 
         // Check if the hash in the witness data matches the hash derived from the data provided by the peer
         final byte[] peersWitnessHash = peersWitness.getHash();
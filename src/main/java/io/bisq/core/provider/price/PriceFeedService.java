@@ -54,6 +54,8 @@ public class PriceFeedService {
     private static final long PERIOD_SEC = 60;
 
     private final Map<String, MarketPrice> cache = new HashMap<>();
+    // Key is currency code
+    private final Map<String, List<Consumer<MarketPrice>>> marketPriceListeners = new HashMap<>();
     private final String baseCurrencyCode;
     private PriceProvider priceProvider;
     @Nullable
@@ -132,11 +134,14 @@ public class PriceFeedService {
 
         baseUrlOfRespondingProvider = null;
 
-        requestAllPrices(priceProvider, () -> {
+        requestAllPrices(priceProvider, changed -> {
             baseUrlOfRespondingProvider = priceProvider.getBaseUrl();
 
             // At applyPriceToConsumer we also check if price is not exceeding max. age for price data.
             boolean success = applyPriceToConsumer();
+            // Consumers of the updateCounter recompute all prices, so we only notify them if any price changed
+            if (changed)
+                updateCounter.set(updateCounter.get() + 1);
             if (success) {
                 final MarketPrice marketPrice = cache.get(currencyCode);
                 if (marketPrice != null)
@@ -224,11 +229,27 @@ public class PriceFeedService {
 
     private void setBisqMarketPrice(String currencyCode, Price price) {
         if (!cache.containsKey(currencyCode) || !cache.get(currencyCode).isExternallyProvidedPrice()) {
-            cache.put(currencyCode, new MarketPrice(currencyCode,
+            final boolean changed = putToCache(new MarketPrice(currencyCode,
                     MathUtils.scaleDownByPowerOf10(price.getValue(), CurrencyUtil.isCryptoCurrency(currencyCode) ? 8 : 4),
                     0,
                     false));
-            updateCounter.set(updateCounter.get() + 1);
+            if (changed)
+                updateCounter.set(updateCounter.get() + 1);
+        }
+    }
+
+    // The listener gets called on the user thread when the price or timestamp of the market price of the given
+    // currency changed
+    public void addMarketPriceListener(String currencyCode, Consumer<MarketPrice> listener) {
+        marketPriceListeners.computeIfAbsent(currencyCode, k -> new ArrayList<>()).add(listener);
+    }
+
+    public void removeMarketPriceListener(String currencyCode, Consumer<MarketPrice> listener) {
+        final List<Consumer<MarketPrice>> listeners = marketPriceListeners.get(currencyCode);
+        if (listeners != null) {
+            listeners.remove(listener);
+            if (listeners.isEmpty())
+                marketPriceListeners.remove(currencyCode);
         }
     }
 
@@ -240,8 +261,10 @@ public class PriceFeedService {
         if (this.currencyCode == null || !this.currencyCode.equals(currencyCode)) {
             this.currencyCode = currencyCode;
             currencyCodeProperty.set(currencyCode);
-            if (priceConsumer != null)
+            if (priceConsumer != null) {
                 applyPriceToConsumer();
+                updateCounter.set(updateCounter.get() + 1);
+            }
         }
     }
 
@@ -282,28 +305,9 @@ public class PriceFeedService {
             return new Date();
     }
 
-    public void applyLatestBisqMarketPrice(HashSet<TradeStatistics2> tradeStatisticsSet) {
-        // takes about 10 ms for 5000 items
-        Map<String, List<TradeStatistics2>> mapByCurrencyCode = new HashMap<>();
-        tradeStatisticsSet.forEach(e -> {
-            final List<TradeStatistics2> list;
-            final String currencyCode = e.getCurrencyCode();
-            if (mapByCurrencyCode.containsKey(currencyCode)) {
-                list = mapByCurrencyCode.get(currencyCode);
-            } else {
-                list = new ArrayList<>();
-                mapByCurrencyCode.put(currencyCode, list);
-            }
-            list.add(e);
-        });
-
-        mapByCurrencyCode.values().stream()
-                .filter(list -> !list.isEmpty())
-                .forEach(list -> {
-                    list.sort((o1, o2) -> o1.getTradeDate().compareTo(o2.getTradeDate()));
-                    TradeStatistics2 tradeStatistics = list.get(list.size() - 1);
-                    setBisqMarketPrice(tradeStatistics.getCurrencyCode(), tradeStatistics.getTradePrice());
-                });
+    // Called with the latest trade statistics of a currency whenever it changes
+    public void applyLatestBisqMarketPrice(TradeStatistics2 latestTradeStatistics) {
+        setBisqMarketPrice(latestTradeStatistics.getCurrencyCode(), latestTradeStatistics.getTradePrice());
     }
 
 
@@ -359,12 +363,24 @@ public class PriceFeedService {
                 faultHandler.handleFault(errorMessage, new PriceRequestException(errorMessage));
         }
 
-        updateCounter.set(updateCounter.get() + 1);
-
         return result;
     }
 
-    private void requestAllPrices(PriceProvider provider, Runnable resultHandler, FaultHandler faultHandler) {
+    // Returns true if the market price was not in the cache or its price or timestamp changed
+    private boolean putToCache(MarketPrice marketPrice) {
+        final String currencyCode = marketPrice.getCurrencyCode();
+        final MarketPrice previousMarketPrice = cache.put(currencyCode, marketPrice);
+        if (marketPrice.equals(previousMarketPrice))
+            return false;
+
+        final List<Consumer<MarketPrice>> listeners = marketPriceListeners.get(currencyCode);
+        if (listeners != null)
+            new ArrayList<>(listeners).forEach(listener -> listener.accept(marketPrice));
+        return true;
+    }
+
+    // The resultHandler gets called with true if any market price changed
+    private void requestAllPrices(PriceProvider provider, Consumer<Boolean> resultHandler, FaultHandler faultHandler) {
         Log.traceCall();
         PriceRequest priceRequest = new PriceRequest();
         SettableFuture<Tuple2<Map<String, Long>, Map<String, MarketPrice>>> future = priceRequest.requestAllPrices(provider);
@@ -376,10 +392,13 @@ public class PriceFeedService {
                     timeStampMap = result.first;
                     epochInSecondAtLastRequest = timeStampMap.get("btcAverageTs");
                     final Map<String, MarketPrice> priceMap = result.second;
+                    boolean changed = false;
                     switch (baseCurrencyCode) {
                         case "BTC":
                             // do nothing as we request btc based prices
-                            cache.putAll(priceMap);
+                            for (MarketPrice marketPrice : priceMap.values()) {
+                                changed |= putToCache(marketPrice);
+                            }
                             break;
                         case "LTC":
                         case "DASH":
@@ -407,7 +426,9 @@ public class PriceFeedService {
                                         log.warn("marketPrice is null");
                                     }
                                 });
-                                cache.putAll(convertedPriceMap);
+                                for (MarketPrice marketPrice : convertedPriceMap.values()) {
+                                    changed |= putToCache(marketPrice);
+                                }
                             } else {
                                 log.warn("baseCurrencyPrice is null");
                             }
@@ -416,7 +437,7 @@ public class PriceFeedService {
                             throw new RuntimeException("baseCurrencyCode not defined. baseCurrencyCode=" + baseCurrencyCode);
                     }
 
-                    resultHandler.run();
+                    resultHandler.accept(changed);
                 });
             }
 
@@ -16,8 +16,8 @@
  */
 package io.bisq.core.provider.price;
 
-import com.google.gson.Gson;
-import com.google.gson.internal.LinkedTreeMap;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import io.bisq.common.app.Version;
 import io.bisq.common.util.MathUtils;
 import io.bisq.common.util.Tuple2;
@@ -25,10 +25,11 @@ import io.bisq.core.provider.HttpClientProvider;
 import io.bisq.network.http.HttpClient;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.io.Reader;
+import java.io.StringReader;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @Slf4j
@@ -40,32 +41,94 @@ public class PriceProvider extends HttpClientProvider {
     }
 
     public Tuple2<Map<String, Long>, Map<String, MarketPrice>> getAll() throws IOException {
-        Map<String, MarketPrice> marketPriceMap = new HashMap<>();
         String json = httpClient.requestWithGET("getAllMarketPrices", "User-Agent", "bisq/"
                 + Version.VERSION + ", uid:" + httpClient.getUid());
-        //noinspection unchecked
-        LinkedTreeMap<String, Object> map = new Gson().fromJson(json, LinkedTreeMap.class);
+        return parseAllMarketPrices(new StringReader(json));
+    }
+
+    // We read the json as a stream instead of creating a map of all values first
+    static Tuple2<Map<String, Long>, Map<String, MarketPrice>> parseAllMarketPrices(Reader json) throws IOException {
         Map<String, Long> tsMap = new HashMap<>();
-        tsMap.put("btcAverageTs", ((Double) map.get("btcAverageTs")).longValue());
-        tsMap.put("poloniexTs", ((Double) map.get("poloniexTs")).longValue());
-        tsMap.put("coinmarketcapTs", ((Double) map.get("coinmarketcapTs")).longValue());
+        Map<String, MarketPrice> marketPriceMap = new HashMap<>();
+        try (JsonReader reader = new JsonReader(json)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                final String name = reader.nextName();
+                switch (name) {
+                    case "btcAverageTs":
+                    case "poloniexTs":
+                    case "coinmarketcapTs":
+                        tsMap.put(name, MathUtils.doubleToLong(reader.nextDouble()));
+                        break;
+                    case "data":
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            final MarketPrice marketPrice = parseMarketPrice(reader);
+                            if (marketPrice != null)
+                                marketPriceMap.put(marketPrice.getCurrencyCode(), marketPrice);
+                        }
+                        reader.endArray();
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } catch (IllegalStateException | NumberFormatException e) {
+            throw new IOException("Unexpected json: " + e.getMessage(), e);
+        }
+        return new Tuple2<>(tsMap, marketPriceMap);
+    }
 
-        //noinspection unchecked
-        List<LinkedTreeMap<String, Object>> list = (ArrayList<LinkedTreeMap<String, Object>>) map.get("data");
-        list.forEach(treeMap -> {
+    // Returns null for an invalid entry, so one bad entry does not prevent that we get the other market prices
+    @Nullable
+    private static MarketPrice parseMarketPrice(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            log.error("Market price entry is not an object but " + reader.peek());
+            reader.skipValue();
+            return null;
+        }
+
+        String currencyCode = null;
+        double price = 0;
+        long timestampSec = 0;
+        boolean isValid = true;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
             try {
-                final String currencyCode = (String) treeMap.get("currencyCode");
-                final double price = (double) treeMap.get("price");
-                // json uses double for our timestampSec long value...
-                final long timestampSec = MathUtils.doubleToLong((double) treeMap.get("timestampSec"));
-                marketPriceMap.put(currencyCode, new MarketPrice(currencyCode, price, timestampSec, true));
-            } catch (Throwable t) {
-                log.error(t.toString());
-                t.printStackTrace();
+                switch (name) {
+                    case "currencyCode":
+                        currencyCode = reader.nextString();
+                        break;
+                    case "price":
+                        price = reader.nextDouble();
+                        break;
+                    case "timestampSec":
+                        // json uses double for our timestampSec long value...
+                        timestampSec = MathUtils.doubleToLong(reader.nextDouble());
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            } catch (IllegalStateException | NumberFormatException e) {
+                // The reader has not consumed the value if it has an unexpected type or format
+                log.error("Invalid value for {} in market price entry. {}", name, e.toString());
+                reader.skipValue();
+                isValid = false;
             }
+        }
+        reader.endObject();
 
-        });
-        return new Tuple2<>(tsMap, marketPriceMap);
+        if (currencyCode == null) {
+            log.error("Market price without currencyCode");
+            return null;
+        }
+        if (!isValid) {
+            log.error("We ignore the invalid market price for " + currencyCode);
+            return null;
+        }
+        return new MarketPrice(currencyCode, price, timestampSec, true);
     }
 
     public String getBaseUrl() {
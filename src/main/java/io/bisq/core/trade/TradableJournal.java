@@ -0,0 +1,263 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.trade;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.io.CountingInputStream;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import io.bisq.common.UserThread;
+import io.bisq.common.proto.persistable.PersistenceProtoResolver;
+import io.bisq.common.util.Utilities;
+import io.bisq.core.util.AtomicFileWriter;
+import io.bisq.generated.protobuffer.PB;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Journal of the changes of the tradables of a TradableList.
+ * <p>
+ * Instead of writing the whole list at each change we append a record for each changed tradable to the journal file.
+ * A record is either the protobuf message of a tradable which was added or changed or the ID of a removed tradable.
+ * Once the journal has more records than the list has items we write all tradables to the snapshot file and start a
+ * new journal. So the bytes written are proportional to the changes.
+ * <p>
+ * The changes get collected and written at the next user thread cycle, so several changes of the same tradable
+ * result in one record. Records are serialized at the user thread and written in a separate thread.
+ */
+@Slf4j
+class TradableJournal<T extends Tradable> {
+    private static final byte PUT = 0;
+    private static final byte REMOVE = 1;
+
+    private final File snapshotFile;
+    private final File journalFile;
+    private final PersistenceProtoResolver persistenceProtoResolver;
+    private final ListeningExecutorService executor;
+
+    // Only accessed from user thread
+    private final Set<String> changedIds = new LinkedHashSet<>();
+    private int numRecords;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    TradableJournal(File storageDir, String fileName, PersistenceProtoResolver persistenceProtoResolver) {
+        snapshotFile = new File(storageDir, fileName + "Snapshot");
+        journalFile = new File(storageDir, fileName + "Journal");
+        this.persistenceProtoResolver = persistenceProtoResolver;
+        executor = Utilities.getListeningSingleThreadExecutor("TradableJournal-" + fileName);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    boolean exists() {
+        return snapshotFile.exists() || journalFile.exists();
+    }
+
+    // True if the snapshot or the journal have been written after the given file. At the same modification time we
+    // prefer the journal as it cannot be older than the file then.
+    boolean isNewerThan(File file) {
+        return !file.exists() || Math.max(snapshotFile.lastModified(), journalFile.lastModified()) >= file.lastModified();
+    }
+
+    // Reads the snapshot and applies the journal records on it
+    @SuppressWarnings("unchecked")
+    List<T> read() {
+        final PB.PersistableEnvelope envelope = PB.PersistableEnvelope.newBuilder()
+                .setTradableList(PB.TradableList.newBuilder().addAllTradable(readProtos()))
+                .build();
+        return new ArrayList<>(((TradableList<T>) persistenceProtoResolver.fromProto(envelope)).getList());
+    }
+
+    // The files are read in the executor thread, so pending writes are done before
+    @VisibleForTesting
+    Collection<PB.Tradable> readProtos() {
+        final Map<String, PB.Tradable> tradablesById = new LinkedHashMap<>();
+        try {
+            numRecords = executor.submit(() -> {
+                readRecords(snapshotFile, tradablesById);
+                return readRecords(journalFile, tradablesById);
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while reading " + journalFile.getAbsolutePath());
+        } catch (ExecutionException e) {
+            log.error("Reading " + journalFile.getAbsolutePath() + " failed. " + e.getCause().toString());
+        }
+        return tradablesById.values();
+    }
+
+    void onTradableChanged(String id, TradableList<T> tradableList) {
+        if (changedIds.isEmpty())
+            UserThread.execute(() -> writeChanges(tradableList));
+        changedIds.add(id);
+    }
+
+    // Writes all tradables to a new snapshot and deletes the journal
+    void writeSnapshot(Collection<T> tradables) {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try {
+            for (T tradable : tradables) {
+                writePutRecord(tradable, outputStream);
+            }
+        } catch (IOException e) {
+            log.error("Could not serialize tradables. " + e.toString());
+            return;
+        }
+        numRecords = 0;
+
+        final byte[] bytes = outputStream.toByteArray();
+        executor.submit(() -> {
+            try {
+                AtomicFileWriter.write(snapshotFile, bytes);
+            } catch (IOException e) {
+                log.error("Writing " + snapshotFile.getAbsolutePath() + " failed. " + e.toString());
+                return;
+            }
+            // All records of the journal are contained in the snapshot
+            if (journalFile.exists() && !journalFile.delete())
+                log.error("Could not delete " + journalFile.getAbsolutePath());
+        });
+    }
+
+    // Writes the pending changes and waits until all writes are done, so nothing gets lost at shutdown
+    void flush(TradableList<T> tradableList) {
+        writeChanges(tradableList);
+        try {
+            executor.submit(() -> {
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while flushing " + journalFile.getAbsolutePath());
+        } catch (ExecutionException e) {
+            log.error("Flushing " + journalFile.getAbsolutePath() + " failed. " + e.getCause().toString());
+        }
+    }
+
+    // Used if we switch back to storing the whole list
+    void delete() {
+        executor.submit(() -> {
+            if (snapshotFile.exists() && !snapshotFile.delete())
+                log.error("Could not delete " + snapshotFile.getAbsolutePath());
+            if (journalFile.exists() && !journalFile.delete())
+                log.error("Could not delete " + journalFile.getAbsolutePath());
+        });
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Does nothing if the changes have been flushed already
+    private void writeChanges(TradableList<T> tradableList) {
+        if (changedIds.isEmpty())
+            return;
+        writeChanges(changedIds, tradableList);
+        changedIds.clear();
+    }
+
+    // Appends a record for each of the given IDs
+    @VisibleForTesting
+    void writeChanges(Collection<String> ids, TradableList<T> tradableList) {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (DataOutputStream dataOutputStream = new DataOutputStream(outputStream)) {
+            for (String id : ids) {
+                final Optional<T> tradable = tradableList.getTradableById(id);
+                if (tradable.isPresent()) {
+                    writePutRecord(tradable.get(), outputStream);
+                } else {
+                    dataOutputStream.writeByte(REMOVE);
+                    dataOutputStream.writeUTF(id);
+                }
+            }
+        } catch (IOException e) {
+            log.error("Could not serialize changed tradables. " + e.toString());
+        }
+        numRecords += ids.size();
+
+        final byte[] bytes = outputStream.toByteArray();
+        executor.submit(() -> {
+            try (OutputStream fileOutputStream = new FileOutputStream(journalFile, true)) {
+                fileOutputStream.write(bytes);
+            } catch (IOException e) {
+                log.error("Appending to " + journalFile.getAbsolutePath() + " failed. " + e.toString());
+            }
+        });
+
+        if (numRecords > Math.max(100, tradableList.size()))
+            writeSnapshot(tradableList.getList());
+    }
+
+    private void writePutRecord(T tradable, OutputStream outputStream) throws IOException {
+        final DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+        dataOutputStream.writeByte(PUT);
+        dataOutputStream.writeUTF(tradable.getId());
+        dataOutputStream.flush();
+        ((PB.Tradable) tradable.toProtoMessage()).writeDelimitedTo(outputStream);
+    }
+
+    // Returns the number of records. A partly written record at the end (e.g. after a crash) gets truncated, as the
+    // records appended later would not be readable otherwise.
+    private int readRecords(File file, Map<String, PB.Tradable> tradablesById) {
+        int numRecords = 0;
+        if (file.exists()) {
+            long completeLength = 0;
+            try (CountingInputStream countingInputStream = new CountingInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                final DataInputStream inputStream = new DataInputStream(countingInputStream);
+                int type;
+                while ((type = inputStream.read()) != -1) {
+                    final String id = inputStream.readUTF();
+                    if (type == PUT) {
+                        final PB.Tradable proto = PB.Tradable.parseDelimitedFrom(inputStream);
+                        if (proto == null)
+                            break;
+                        tradablesById.put(id, proto);
+                    } else {
+                        tradablesById.remove(id);
+                    }
+                    numRecords++;
+                    completeLength = countingInputStream.getCount();
+                }
+            } catch (IOException e) {
+                log.warn("Could not read all records of {}. {}", file.getAbsolutePath(), e.toString());
+            }
+
+            if (completeLength < file.length()) {
+                log.warn("Truncating {} to the last complete record at {} of {} bytes.",
+                        file.getAbsolutePath(), completeLength, file.length());
+                try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                    channel.truncate(completeLength);
+                } catch (IOException e) {
+                    log.error("Truncating " + file.getAbsolutePath() + " failed. " + e.toString());
+                }
+            }
+        }
+        return numRecords;
+    }
+}
@@ -21,19 +21,21 @@ import com.google.protobuf.Message;
 import io.bisq.common.proto.ProtoUtil;
 import io.bisq.common.proto.ProtobufferException;
 import io.bisq.common.proto.persistable.PersistableEnvelope;
+import io.bisq.common.proto.persistable.PersistenceProtoResolver;
 import io.bisq.common.storage.Storage;
 import io.bisq.core.btc.wallet.BtcWalletService;
 import io.bisq.core.offer.OpenOffer;
 import io.bisq.core.proto.CoreProtoResolver;
 import io.bisq.generated.protobuffer.PB;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.annotation.Nullable;
-import java.util.ArrayList;
-import java.util.List;
+import java.io.File;
+import java.util.*;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -43,6 +45,11 @@ public final class TradableList<T extends Tradable> implements PersistableEnvelo
     transient final private Storage<TradableList<T>> storage;
     @Getter
     private final ObservableList<T> list = FXCollections.observableArrayList();
+    // Index by ID of the items in list. The list is exposed, so we update the index by listening to the list.
+    transient final private Map<String, T> tradablesById = new HashMap<>();
+    // If set we persist the changes of single tradables to the journal instead of the whole list
+    @Nullable
+    transient private TradableJournal<T> journal;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -51,12 +58,46 @@ public final class TradableList<T extends Tradable> implements PersistableEnvelo
 
     public TradableList(Storage<TradableList<T>> storage, String fileName) {
         this.storage = storage;
+        addListChangeListener();
 
         TradableList<T> persisted = storage.initAndGetPersisted(this, fileName, 50);
         if (persisted != null)
             list.addAll(persisted.getList());
     }
 
+    public TradableList(Storage<TradableList<T>> storage,
+                        String fileName,
+                        File storageDir,
+                        PersistenceProtoResolver persistenceProtoResolver,
+                        boolean journaled) {
+        this.storage = storage;
+        addListChangeListener();
+
+        final TradableJournal<T> journal = new TradableJournal<>(storageDir, fileName, persistenceProtoResolver);
+        TradableList<T> persisted = storage.initAndGetPersisted(this, fileName, 50);
+        if (journal.exists() && journal.isNewerThan(new File(storageDir, fileName))) {
+            list.addAll(journal.read());
+            // The save is only queued up, so we keep the journal until the whole list has been written. At the next
+            // startup the persisted list is newer than the journal and we delete it.
+            if (!journaled)
+                storage.queueUpForSave();
+        } else {
+            if (persisted != null) {
+                list.addAll(persisted.getList());
+                if (journaled)
+                    journal.writeSnapshot(list);
+            }
+            // The journal is outdated if the whole list has been written after it
+            if (!journaled && journal.exists())
+                journal.delete();
+        }
+
+        if (journaled) {
+            this.journal = journal;
+            list.forEach(this::setTradableListAtTrade);
+        }
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // PROTO BUFFER
@@ -64,6 +105,7 @@ public final class TradableList<T extends Tradable> implements PersistableEnvelo
 
     private TradableList(Storage<TradableList<T>> storage, List<T> list) {
         this.storage = storage;
+        addListChangeListener();
         this.list.addAll(list);
     }
 
@@ -113,18 +155,33 @@ public final class TradableList<T extends Tradable> implements PersistableEnvelo
 
     public boolean add(T tradable) {
         boolean changed = list.add(tradable);
-        if (changed)
+        // With a journal the list change listener handles the persistence
+        if (changed && journal == null)
             storage.queueUpForSave();
         return changed;
     }
 
     public boolean remove(T tradable) {
         boolean changed = list.remove(tradable);
-        if (changed)
+        if (changed && journal == null)
             storage.queueUpForSave();
         return changed;
     }
 
+    // Called by a trade of a list with journal if it has changed
+    void onTradableChanged(Tradable tradable) {
+        if (journal != null)
+            journal.onTradableChanged(tradable.getId(), this);
+        else
+            storage.queueUpForSave();
+    }
+
+    // Writes the pending changes of the journal. Without journal the storage persists the list at shutdown.
+    public void shutDown() {
+        if (journal != null)
+            journal.flush(this);
+    }
+
     public Stream<T> stream() {
         return list.stream();
     }
@@ -140,4 +197,41 @@ public final class TradableList<T extends Tradable> implements PersistableEnvelo
     public boolean contains(T thing) {
         return list.contains(thing);
     }
+
+    // If there are several items with the same ID we return the first one added
+    public Optional<T> getTradableById(String id) {
+        return Optional.ofNullable(tradablesById.get(id));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void addListChangeListener() {
+        list.addListener((ListChangeListener<T>) change -> {
+            while (change.next()) {
+                change.getRemoved().forEach(tradable -> {
+                    final String id = tradable.getId();
+                    if (tradablesById.remove(id, tradable))
+                        list.stream().filter(e -> e.getId().equals(id)).findFirst().ifPresent(e -> tradablesById.put(id, e));
+                    if (journal != null)
+                        journal.onTradableChanged(id, this);
+                });
+                change.getAddedSubList().forEach(tradable -> {
+                    tradablesById.putIfAbsent(tradable.getId(), tradable);
+                    if (journal != null) {
+                        setTradableListAtTrade(tradable);
+                        journal.onTradableChanged(tradable.getId(), this);
+                    }
+                });
+            }
+        });
+    }
+
+    // The trade reports its changes to the list it is contained in
+    private void setTradableListAtTrade(T tradable) {
+        if (tradable instanceof Trade)
+            ((Trade) tradable).setTradableList(this);
+    }
 }
@@ -324,6 +324,9 @@ public abstract class Trade implements Tradable, Model {
     transient private Storage<? extends TradableList> storage;
     @Getter // to set in constructor so not final but set at init
     transient private BtcWalletService btcWalletService;
+    // Set if the trade is contained in a TradableList with journal
+    @Nullable
+    transient private TradableList<? extends Tradable> tradableList;
 
     transient final private ObjectProperty<State> stateProperty = new SimpleObjectProperty<>(state);
     transient final private ObjectProperty<Phase> statePhaseProperty = new SimpleObjectProperty<>(state.phase);
@@ -466,6 +469,10 @@ public abstract class Trade implements Tradable, Model {
         this.btcWalletService = btcWalletService;
     }
 
+    void setTradableList(TradableList<? extends Tradable> tradableList) {
+        this.tradableList = tradableList;
+    }
+
     public void init(P2PService p2PService,
                      BtcWalletService btcWalletService,
                      BsqWalletService bsqWalletService,
@@ -558,7 +565,9 @@ public abstract class Trade implements Tradable, Model {
     // Get called from taskRunner after each completed task
     @Override
     public void persist() {
-        if (storage != null)
+        if (tradableList != null)
+            tradableList.onTradableChanged(this);
+        else if (storage != null)
             storage.queueUpForSave();
     }
 
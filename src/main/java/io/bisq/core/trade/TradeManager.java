@@ -28,6 +28,7 @@ import io.bisq.common.proto.network.NetworkEnvelope;
 import io.bisq.common.proto.persistable.PersistedDataHost;
 import io.bisq.common.proto.persistable.PersistenceProtoResolver;
 import io.bisq.common.storage.Storage;
+import io.bisq.core.app.AppOptionKeys;
 import io.bisq.core.btc.AddressEntry;
 import io.bisq.core.btc.AddressEntryException;
 import io.bisq.core.btc.wallet.BsqWalletService;
@@ -96,6 +97,9 @@ public class TradeManager implements PersistedDataHost {
     private final AccountAgeWitnessService accountAgeWitnessService;
 
     private final Storage<TradableList<Trade>> tradableListStorage;
+    private final File storageDir;
+    private final PersistenceProtoResolver persistenceProtoResolver;
+    private final boolean journaledTradeStorage;
     private TradableList<Trade> tradableList;
     private final BooleanProperty pendingTradesInitialized = new SimpleBooleanProperty();
     private List<Trade> tradesForStatistics;
@@ -123,7 +127,8 @@ public class TradeManager implements PersistedDataHost {
                         TradeStatisticsManager tradeStatisticsManager,
                         PersistenceProtoResolver persistenceProtoResolver,
                         AccountAgeWitnessService accountAgeWitnessService,
-                        @Named(Storage.STORAGE_DIR) File storageDir) {
+                        @Named(Storage.STORAGE_DIR) File storageDir,
+                        @Named(AppOptionKeys.JOURNALED_TRADE_STORAGE) boolean journaledTradeStorage) {
         this.user = user;
         this.keyRing = keyRing;
         this.btcWalletService = btcWalletService;
@@ -137,6 +142,9 @@ public class TradeManager implements PersistedDataHost {
         this.filterManager = filterManager;
         this.tradeStatisticsManager = tradeStatisticsManager;
         this.accountAgeWitnessService = accountAgeWitnessService;
+        this.storageDir = storageDir;
+        this.persistenceProtoResolver = persistenceProtoResolver;
+        this.journaledTradeStorage = journaledTradeStorage;
 
         tradableListStorage = new Storage<>(storageDir, persistenceProtoResolver);
 
@@ -163,7 +171,7 @@ public class TradeManager implements PersistedDataHost {
                 if (networkEnvelop instanceof TradeMessage) {
                     log.trace("Received TradeMessage: " + networkEnvelop);
                     String tradeId = ((TradeMessage) networkEnvelop).getTradeId();
-                    Optional<Trade> tradeOptional = tradableList.stream().filter(e -> e.getId().equals(tradeId)).findAny();
+                    Optional<Trade> tradeOptional = getTradeById(tradeId);
                     // The mailbox message will be removed inside the tasks after they are processed successfully
                     if (tradeOptional.isPresent())
                         tradeOptional.get().addDecryptedMessageWithPubKey(decryptedMessageWithPubKey);
@@ -174,7 +182,8 @@ public class TradeManager implements PersistedDataHost {
 
     @Override
     public void readPersisted() {
-        tradableList = new TradableList<>(tradableListStorage, "PendingTrades");
+        tradableList = new TradableList<>(tradableListStorage, "PendingTrades", storageDir,
+                persistenceProtoResolver, journaledTradeStorage);
         tradableList.forEach(trade -> {
             trade.setTransientFields(tradableListStorage, btcWalletService);
             trade.getOffer().setPriceFeedService(priceFeedService);
@@ -202,6 +211,10 @@ public class TradeManager implements PersistedDataHost {
     }
 
     public void shutDown() {
+        if (tradableList != null)
+            tradableList.shutDown();
+        closedTradableManager.shutDown();
+        failedTradesManager.shutDown();
     }
 
     private void initPendingTrades() {
@@ -530,7 +543,7 @@ public class TradeManager implements PersistedDataHost {
     }
 
     public Optional<Trade> getTradeById(String tradeId) {
-        return tradableList.stream().filter(e -> e.getId().equals(tradeId)).findFirst();
+        return tradableList.getTradableById(tradeId);
     }
 
     public Stream<AddressEntry> getAddressEntriesForAvailableBalanceStream() {
@@ -42,5 +42,8 @@ public class TradeModule extends AppModule {
         bind(FailedTradesManager.class).in(Singleton.class);
         bind(AccountAgeWitnessService.class).in(Singleton.class);
         bindConstant().annotatedWith(named(AppOptionKeys.DUMP_STATISTICS)).to(environment.getRequiredProperty(AppOptionKeys.DUMP_STATISTICS));
+        bindConstant().annotatedWith(named(AppOptionKeys.DUMP_STATISTICS_INTERVAL)).to(environment.getRequiredProperty(AppOptionKeys.DUMP_STATISTICS_INTERVAL));
+        bindConstant().annotatedWith(named(AppOptionKeys.DUMP_STATISTICS_PER_MARKET)).to(environment.getRequiredProperty(AppOptionKeys.DUMP_STATISTICS_PER_MARKET));
+        bindConstant().annotatedWith(named(AppOptionKeys.JOURNALED_TRADE_STORAGE)).to(environment.getRequiredProperty(AppOptionKeys.JOURNALED_TRADE_STORAGE));
     }
 }
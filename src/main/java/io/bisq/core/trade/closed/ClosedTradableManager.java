@@ -23,6 +23,7 @@ import io.bisq.common.crypto.KeyRing;
 import io.bisq.common.proto.persistable.PersistedDataHost;
 import io.bisq.common.proto.persistable.PersistenceProtoResolver;
 import io.bisq.common.storage.Storage;
+import io.bisq.core.app.AppOptionKeys;
 import io.bisq.core.btc.wallet.BtcWalletService;
 import io.bisq.core.offer.Offer;
 import io.bisq.core.provider.price.PriceFeedService;
@@ -44,15 +45,22 @@ public class ClosedTradableManager implements PersistedDataHost {
     private final KeyRing keyRing;
     private final PriceFeedService priceFeedService;
     private final BtcWalletService btcWalletService;
+    private final File storageDir;
+    private final PersistenceProtoResolver persistenceProtoResolver;
+    private final boolean journaledTradeStorage;
 
     @Inject
     public ClosedTradableManager(KeyRing keyRing, PriceFeedService priceFeedService,
                                  PersistenceProtoResolver persistenceProtoResolver,
                                  BtcWalletService btcWalletService,
-                                 @Named(Storage.STORAGE_DIR) File storageDir) {
+                                 @Named(Storage.STORAGE_DIR) File storageDir,
+                                 @Named(AppOptionKeys.JOURNALED_TRADE_STORAGE) boolean journaledTradeStorage) {
         this.keyRing = keyRing;
         this.priceFeedService = priceFeedService;
         this.btcWalletService = btcWalletService;
+        this.storageDir = storageDir;
+        this.persistenceProtoResolver = persistenceProtoResolver;
+        this.journaledTradeStorage = journaledTradeStorage;
         tradableListStorage = new Storage<>(storageDir, persistenceProtoResolver);
         // The ClosedTrades object can become a few MB so we don't keep so many backups
         tradableListStorage.setNumMaxBackupFiles(3);
@@ -61,7 +69,8 @@ public class ClosedTradableManager implements PersistedDataHost {
 
     @Override
     public void readPersisted() {
-        closedTradables = new TradableList<>(tradableListStorage, "ClosedTrades");
+        closedTradables = new TradableList<>(tradableListStorage, "ClosedTrades", storageDir,
+                persistenceProtoResolver, journaledTradeStorage);
         closedTradables.forEach(tradable -> {
             tradable.getOffer().setPriceFeedService(priceFeedService);
             if (tradable instanceof Trade) {
@@ -71,6 +80,12 @@ public class ClosedTradableManager implements PersistedDataHost {
         });
     }
 
+    // Called from TradeManager.shutDown
+    public void shutDown() {
+        if (closedTradables != null)
+            closedTradables.shutDown();
+    }
+
     public void add(Tradable tradable) {
         closedTradables.add(tradable);
     }
@@ -91,7 +106,7 @@ public class ClosedTradableManager implements PersistedDataHost {
     }
 
     public Optional<Tradable> getTradableById(String id) {
-        return closedTradables.stream().filter(e -> e.getId().equals(id)).findFirst();
+        return closedTradables.getTradableById(id);
     }
 
     public Stream<Trade> getLockedTradesStream() {
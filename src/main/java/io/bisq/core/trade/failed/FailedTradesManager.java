@@ -22,6 +22,7 @@ import io.bisq.common.crypto.KeyRing;
 import io.bisq.common.proto.persistable.PersistedDataHost;
 import io.bisq.common.proto.persistable.PersistenceProtoResolver;
 import io.bisq.common.storage.Storage;
+import io.bisq.core.app.AppOptionKeys;
 import io.bisq.core.btc.wallet.BtcWalletService;
 import io.bisq.core.offer.Offer;
 import io.bisq.core.provider.price.PriceFeedService;
@@ -43,22 +44,30 @@ public class FailedTradesManager implements PersistedDataHost {
     private final PriceFeedService priceFeedService;
     private final BtcWalletService btcWalletService;
     private final Storage<TradableList<Trade>> tradableListStorage;
+    private final File storageDir;
+    private final PersistenceProtoResolver persistenceProtoResolver;
+    private final boolean journaledTradeStorage;
 
     @Inject
     public FailedTradesManager(KeyRing keyRing, PriceFeedService priceFeedService,
                                PersistenceProtoResolver persistenceProtoResolver,
                                BtcWalletService btcWalletService,
-                               @Named(Storage.STORAGE_DIR) File storageDir) {
+                               @Named(Storage.STORAGE_DIR) File storageDir,
+                               @Named(AppOptionKeys.JOURNALED_TRADE_STORAGE) boolean journaledTradeStorage) {
         this.keyRing = keyRing;
         this.priceFeedService = priceFeedService;
         this.btcWalletService = btcWalletService;
+        this.storageDir = storageDir;
+        this.persistenceProtoResolver = persistenceProtoResolver;
+        this.journaledTradeStorage = journaledTradeStorage;
         tradableListStorage = new Storage<>(storageDir, persistenceProtoResolver);
 
     }
 
     @Override
     public void readPersisted() {
-        this.failedTrades = new TradableList<>(tradableListStorage, "FailedTrades");
+        this.failedTrades = new TradableList<>(tradableListStorage, "FailedTrades", storageDir,
+                persistenceProtoResolver, journaledTradeStorage);
         failedTrades.forEach(e -> e.getOffer().setPriceFeedService(priceFeedService));
         failedTrades.forEach(trade -> {
             trade.getOffer().setPriceFeedService(priceFeedService);
@@ -66,6 +75,12 @@ public class FailedTradesManager implements PersistedDataHost {
         });
     }
 
+    // Called from TradeManager.shutDown
+    public void shutDown() {
+        if (failedTrades != null)
+            failedTrades.shutDown();
+    }
+
     public void add(Trade trade) {
         if (!failedTrades.contains(trade))
             failedTrades.add(trade);
@@ -80,7 +95,7 @@ public class FailedTradesManager implements PersistedDataHost {
     }
 
     public Optional<Trade> getTradeById(String id) {
-        return failedTrades.stream().filter(e -> e.getId().equals(id)).findFirst();
+        return failedTrades.getTradableById(id);
     }
 
     public Stream<Trade> getLockedTradesStream() {
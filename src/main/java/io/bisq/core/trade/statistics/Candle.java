@@ -0,0 +1,77 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.trade.statistics;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Open, high, low and close price, amount and volume of the trades of one currency within one interval.
+ * Prices and volume are the values of Price and Volume of the currency, the amount is in satoshi.
+ * <p>
+ * Trades might arrive in any order, so we keep the trade dates of the open and close price.
+ */
+@Getter
+@ToString
+public class Candle {
+    private final CandleInterval interval;
+    private final long startDate;
+    private long open;
+    private long high;
+    private long low;
+    private long close;
+    private long amount;
+    private long volume;
+    private int numTrades;
+
+    private long openDate = Long.MAX_VALUE;
+    private long closeDate = Long.MIN_VALUE;
+    // Sum of price * amount of all trades, might exceed the range of long
+    private double priceTimesAmount;
+
+    Candle(CandleInterval interval, long startDate) {
+        this.interval = interval;
+        this.startDate = startDate;
+    }
+
+    void add(TradeStatistics2 tradeStatistics) {
+        final long date = tradeStatistics.getTradeDate().getTime();
+        final long price = tradeStatistics.getTradePrice().getValue();
+        if (date < openDate) {
+            openDate = date;
+            open = price;
+        }
+        if (date >= closeDate) {
+            closeDate = date;
+            close = price;
+        }
+        high = numTrades == 0 ? price : Math.max(high, price);
+        low = numTrades == 0 ? price : Math.min(low, price);
+
+        final long tradeAmount = tradeStatistics.getTradeAmount().getValue();
+        amount += tradeAmount;
+        volume += tradeStatistics.getTradeVolume().getValue();
+        priceTimesAmount += (double) price * tradeAmount;
+        numTrades++;
+    }
+
+    // Volume weighted average price
+    public long getVwap() {
+        return amount > 0 ? Math.round(priceTimesAmount / amount) : 0;
+    }
+}
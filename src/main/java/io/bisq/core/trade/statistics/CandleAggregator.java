@@ -0,0 +1,75 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.trade.statistics;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Aggregates the trade statistics to candles of all intervals per currency. Each trade statistics item is added
+ * once to one candle per interval, so we never need to recompute the candles from the full history.
+ * <p>
+ * Not thread safe. Only accessed from the user thread.
+ */
+class CandleAggregator {
+    // Key is currency code, the candles are sorted by their start date
+    private final Map<String, Map<CandleInterval, NavigableMap<Long, Candle>>> candlesByCurrencyCode = new HashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void add(TradeStatistics2 tradeStatistics) {
+        final Map<CandleInterval, NavigableMap<Long, Candle>> candlesByInterval = candlesByCurrencyCode.computeIfAbsent(
+                tradeStatistics.getCurrencyCode(), k -> new EnumMap<>(CandleInterval.class));
+        final long date = tradeStatistics.getTradeDate().getTime();
+        for (CandleInterval interval : CandleInterval.values()) {
+            candlesByInterval.computeIfAbsent(interval, k -> new TreeMap<>())
+                    .computeIfAbsent(interval.getStartDate(date), startDate -> new Candle(interval, startDate))
+                    .add(tradeStatistics);
+        }
+    }
+
+    // Returns the candle with the latest start date
+    @Nullable
+    Candle getCurrentCandle(String currencyCode, CandleInterval interval) {
+        final NavigableMap<Long, Candle> candles = getCandles(currencyCode, interval);
+        return candles != null && !candles.isEmpty() ? candles.lastEntry().getValue() : null;
+    }
+
+    // Returns the candles with fromDate <= startDate < toDate sorted by start date. Intervals without trades are
+    // not contained.
+    List<Candle> getCandles(String currencyCode, CandleInterval interval, long fromDate, long toDate) {
+        final NavigableMap<Long, Candle> candles = getCandles(currencyCode, interval);
+        return candles != null && fromDate < toDate ?
+                new ArrayList<>(candles.subMap(fromDate, true, toDate, false).values()) :
+                new ArrayList<>();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Nullable
+    private NavigableMap<Long, Candle> getCandles(String currencyCode, CandleInterval interval) {
+        final Map<CandleInterval, NavigableMap<Long, Candle>> candlesByInterval = candlesByCurrencyCode.get(currencyCode);
+        return candlesByInterval != null ? candlesByInterval.get(interval) : null;
+    }
+}
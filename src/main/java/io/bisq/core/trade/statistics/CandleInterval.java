@@ -0,0 +1,41 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.trade.statistics;
+
+import java.util.concurrent.TimeUnit;
+
+public enum CandleInterval {
+    MINUTE(TimeUnit.MINUTES.toMillis(1), 0),
+    HOUR(TimeUnit.HOURS.toMillis(1), 0),
+    DAY(TimeUnit.DAYS.toMillis(1), 0),
+    // 1970-01-01 was a Thursday, we let the weeks start at Monday
+    WEEK(TimeUnit.DAYS.toMillis(7), TimeUnit.DAYS.toMillis(4));
+
+    private final long duration;
+    private final long offset;
+
+    CandleInterval(long duration, long offset) {
+        this.duration = duration;
+        this.offset = offset;
+    }
+
+    // Returns the start date of the interval containing the given date (UTC)
+    public long getStartDate(long date) {
+        return Math.floorDiv(date - offset, duration) * duration + offset;
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.trade.statistics;
+
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.gson.Gson;
+import io.bisq.common.util.Utilities;
+import io.bisq.core.util.AtomicFileWriter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Append-only export of the trade statistics for nodes running with the dumpStatistics option. It is written in
+ * addition to the trade_statistics.json file which contains all items and gets rewritten at each new item.
+ * <p>
+ * The trade statistics are partitioned by the UTC day of their trade date into segment files in the trade_statistics
+ * directory. Each line of a segment file is one TradeStatisticsForJson object. We only append the items which have not
+ * been exported before, so consumers can tail the segments (see TradeStatisticsJsonReader). Items with an old trade
+ * date get appended to the segment of their day. The index file lists all segments with their number of items and
+ * size, so consumers only need to read the segments which have grown.
+ * <p>
+ * The TradeStatisticsForJson objects are created in the calling thread and written in a separate thread.
+ */
+@Slf4j
+class TradeStatisticsJsonExport {
+    private static final String INDEX_FILE_NAME = "index.json";
+
+    private static class SegmentForJson {
+        private final String fileName;
+        private long numItems;
+        private long size;
+
+        private SegmentForJson(String fileName) {
+            this.fileName = fileName;
+        }
+    }
+
+    private final File dir;
+    private final ListeningExecutorService executor = Utilities.getListeningSingleThreadExecutor("TradeStatisticsJsonExport");
+    private final Gson gson = new Gson();
+
+    // Only accessed from executor thread
+    private Set<String> exportedOfferIds;
+    private final Map<String, SegmentForJson> segmentsByFileName = new TreeMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    TradeStatisticsJsonExport(File storageDir) {
+        dir = new File(storageDir, TradeStatisticsJsonReader.DIR_NAME);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Items which are already in the export are ignored
+    void export(Collection<TradeStatistics2> tradeStatistics) {
+        final List<TradeStatisticsForJson> list = tradeStatistics.stream()
+                .map(TradeStatisticsForJson::new)
+                .collect(Collectors.toList());
+        executor.submit(() -> {
+            if (exportedOfferIds == null)
+                readExistingSegments();
+
+            final Map<String, List<TradeStatisticsForJson>> newItemsBySegment = list.stream()
+                    .filter(e -> exportedOfferIds.add(e.offerId))
+                    .sorted(Comparator.comparingLong(e -> e.tradeDate))
+                    .collect(Collectors.groupingBy(e -> TradeStatisticsJsonReader.getSegmentFileName(e.tradeDate)));
+            if (!newItemsBySegment.isEmpty()) {
+                newItemsBySegment.forEach(this::append);
+                writeIndex();
+            }
+        });
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // We read the segments of a previous run once, so we don't write the items again after a restart
+    private void readExistingSegments() {
+        exportedOfferIds = new HashSet<>();
+        if (!dir.exists() && !dir.mkdirs())
+            log.warn("make dir failed.\ndir=" + dir.getAbsolutePath());
+
+        final Map<String, Long> positions = new TradeStatisticsJsonReader(dir.getParentFile()).read(new HashMap<>(),
+                (fileName, tradeStatisticsForJson) -> {
+                    exportedOfferIds.add(tradeStatisticsForJson.offerId);
+                    segmentsByFileName.computeIfAbsent(fileName, SegmentForJson::new).numItems++;
+                });
+        positions.forEach((fileName, position) -> {
+            final File file = new File(dir, fileName);
+            // Cut off a partly written line, e.g. after a crash
+            if (file.length() > position) {
+                try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+                    randomAccessFile.setLength(position);
+                } catch (IOException e) {
+                    log.error("Truncating " + file.getAbsolutePath() + " failed. " + e.toString());
+                }
+            }
+            segmentsByFileName.computeIfAbsent(fileName, SegmentForJson::new).size = position;
+        });
+    }
+
+    private void append(String fileName, List<TradeStatisticsForJson> list) {
+        final File file = new File(dir, fileName);
+        final SegmentForJson segment = segmentsByFileName.computeIfAbsent(fileName, SegmentForJson::new);
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8))) {
+            for (TradeStatisticsForJson tradeStatisticsForJson : list) {
+                writer.write(gson.toJson(tradeStatisticsForJson));
+                writer.write("\n");
+            }
+            segment.numItems += list.size();
+        } catch (IOException e) {
+            log.error("Appending to " + file.getAbsolutePath() + " failed. " + e.toString());
+        }
+        segment.size = file.length();
+    }
+
+    private void writeIndex() {
+        final File file = new File(dir, INDEX_FILE_NAME);
+        try {
+            AtomicFileWriter.write(file, Utilities.objectToJson(segmentsByFileName.values()).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            log.error("Writing " + file.getAbsolutePath() + " failed. " + e.toString());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.trade.statistics;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Reads the segment files written by the trade statistics export (see TradeStatisticsJsonExport).
+ * <p>
+ * The caller keeps the read position of each segment and passes it to the next call, so only the items appended in
+ * the meantime get read. A partly written line at the end of a segment is not read until it is complete.
+ */
+@Slf4j
+public class TradeStatisticsJsonReader {
+    static final String DIR_NAME = "trade_statistics";
+    private static final String SEGMENT_FILE_NAME_PREFIX = "trade_statistics_";
+    private static final String SEGMENT_FILE_NAME_SUFFIX = ".json";
+    private static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE.withZone(ZoneOffset.UTC);
+
+    static String getSegmentFileName(long tradeDate) {
+        return SEGMENT_FILE_NAME_PREFIX + DAY_FORMATTER.format(Instant.ofEpochMilli(tradeDate)) + SEGMENT_FILE_NAME_SUFFIX;
+    }
+
+    private final File dir;
+    private final Gson gson = new Gson();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public TradeStatisticsJsonReader(File storageDir) {
+        dir = new File(storageDir, DIR_NAME);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * @param positions Key is the segment file name, value the position up to which the segment has been read.
+     *                  Segments which are not contained get read from the start.
+     * @param consumer  Gets called with the segment file name and the item for each new item.
+     * @return The new positions of all segments.
+     */
+    public Map<String, Long> read(Map<String, Long> positions, BiConsumer<String, TradeStatisticsForJson> consumer) {
+        final Map<String, Long> newPositions = new HashMap<>(positions);
+        final File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                final String fileName = file.getName();
+                if (fileName.startsWith(SEGMENT_FILE_NAME_PREFIX) && fileName.endsWith(SEGMENT_FILE_NAME_SUFFIX)) {
+                    final long position = positions.getOrDefault(fileName, 0L);
+                    if (file.length() > position)
+                        newPositions.put(fileName, readSegment(file, position, consumer));
+                    else
+                        newPositions.putIfAbsent(fileName, position);
+                }
+            }
+        }
+        return newPositions;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Returns the position after the last complete line
+    private long readSegment(File file, long position, BiConsumer<String, TradeStatisticsForJson> consumer) {
+        try (InputStream inputStream = new BufferedInputStream(new FileInputStream(file))) {
+            if (inputStream.skip(position) != position)
+                return position;
+
+            final ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int b;
+            while ((b = inputStream.read()) != -1) {
+                if (b == '\n') {
+                    position += line.size() + 1;
+                    try {
+                        consumer.accept(file.getName(), gson.fromJson(new String(line.toByteArray(), StandardCharsets.UTF_8),
+                                TradeStatisticsForJson.class));
+                    } catch (JsonParseException e) {
+                        log.warn("Could not parse line in {}. {}", file.getAbsolutePath(), e.toString());
+                    }
+                    line.reset();
+                } else {
+                    line.write(b);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not read {}. {}", file.getAbsolutePath(), e.toString());
+        }
+        return position;
+    }
+}
@@ -20,6 +20,7 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableSet;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
@@ -48,21 +49,30 @@ public class TradeStatisticsManager {
     }
 
     private final JsonFileManager jsonFileManager;
+    private final TradeStatisticsJsonExport tradeStatisticsJsonExport;
     private final P2PService p2PService;
     private final PriceFeedService priceFeedService;
     private final boolean dumpStatistics;
+    private final long dumpStatisticsIntervalMs;
     private final ObservableSet<TradeStatistics2> observableTradeStatisticsSet = FXCollections.observableSet();
     private final HashSet<TradeStatistics2> tradeStatisticsSet = new HashSet<>();
+    private final TradeStatisticsStore tradeStatisticsStore = new TradeStatisticsStore();
+    private final CandleAggregator candleAggregator = new CandleAggregator();
+    private boolean dumpScheduled;
+    private long lastDumpTs;
 
     @Inject
     public TradeStatisticsManager(P2PService p2PService,
                                   PriceFeedService priceFeedService,
                                   @Named(Storage.STORAGE_DIR) File storageDir,
-                                  @Named(AppOptionKeys.DUMP_STATISTICS) boolean dumpStatistics) {
+                                  @Named(AppOptionKeys.DUMP_STATISTICS) boolean dumpStatistics,
+                                  @Named(AppOptionKeys.DUMP_STATISTICS_INTERVAL) long dumpStatisticsInterval) {
         this.p2PService = p2PService;
         this.priceFeedService = priceFeedService;
         this.dumpStatistics = dumpStatistics;
+        this.dumpStatisticsIntervalMs = TimeUnit.SECONDS.toMillis(dumpStatisticsInterval);
         jsonFileManager = new JsonFileManager(storageDir);
+        tradeStatisticsJsonExport = new TradeStatisticsJsonExport(storageDir);
     }
 
     public void onAllServicesInitialized() {
@@ -106,8 +116,11 @@ public class TradeStatisticsManager {
             }
         });
 
-        priceFeedService.applyLatestBisqMarketPrice(tradeStatisticsSet);
+        tradeStatisticsStore.getLatestOfAllCurrencies().forEach(priceFeedService::applyLatestBisqMarketPrice);
+
         dump();
+        if (dumpStatistics)
+            tradeStatisticsJsonExport.export(tradeStatisticsStore.getAll());
 
         // print all currencies sorted by nr. of trades
         // printAllCurrencyStats();
@@ -137,16 +150,21 @@ public class TradeStatisticsManager {
 
     public void addToMap(TradeStatistics2 tradeStatistics, boolean storeLocally) {
         if (!tradeStatisticsSet.contains(tradeStatistics)) {
-            boolean itemAlreadyAdded = tradeStatisticsSet.stream().filter(e -> (e.getOfferId().equals(tradeStatistics.getOfferId()))).findAny().isPresent();
-            if (!itemAlreadyAdded) {
+            if (tradeStatisticsStore.add(tradeStatistics)) {
                 tradeStatisticsSet.add(tradeStatistics);
                 observableTradeStatisticsSet.add(tradeStatistics);
+                candleAggregator.add(tradeStatistics);
 
                 tradeStatistics.getTradePrice().getValue();
 
                 if (storeLocally) {
-                    priceFeedService.applyLatestBisqMarketPrice(tradeStatisticsSet);
-                    dump();
+                    // We only update the market price if the new item is the latest trade of its currency
+                    if (tradeStatisticsStore.getLatest(tradeStatistics.getCurrencyCode()) == tradeStatistics)
+                        priceFeedService.applyLatestBisqMarketPrice(tradeStatistics);
+
+                    requestDump();
+                    if (dumpStatistics)
+                        tradeStatisticsJsonExport.export(Collections.singletonList(tradeStatistics));
                 }
             } else {
                 log.debug("We have already an item with the same offer ID. That might happen if both the maker and the taker published the tradeStatistics");
@@ -158,7 +176,33 @@ public class TradeStatisticsManager {
         return observableTradeStatisticsSet;
     }
 
+    // Returns the trade statistics of the given currency with fromDate <= tradeDate < toDate sorted by trade date
+    public List<TradeStatistics2> getTradeStatistics(String currencyCode, Date fromDate, Date toDate) {
+        return tradeStatisticsStore.getTradeStatistics(currencyCode, fromDate.getTime(), toDate.getTime());
+    }
+
+    @Nullable
+    public Candle getCurrentCandle(String currencyCode, CandleInterval interval) {
+        return candleAggregator.getCurrentCandle(currencyCode, interval);
+    }
+
+    // Returns the candles of the given currency with fromDate <= startDate < toDate sorted by start date
+    public List<Candle> getCandles(String currencyCode, CandleInterval interval, Date fromDate, Date toDate) {
+        return candleAggregator.getCandles(currencyCode, interval, fromDate.getTime(), toDate.getTime());
+    }
+
+    // The json file contains all trade statistics, so we coalesce the new trades within the dump interval to one dump
+    private void requestDump() {
+        if (dumpStatistics && !dumpScheduled) {
+            dumpScheduled = true;
+            final long delay = Math.max(0, lastDumpTs + dumpStatisticsIntervalMs - System.currentTimeMillis());
+            UserThread.runAfter(this::dump, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
     private void dump() {
+        dumpScheduled = false;
+        lastDumpTs = System.currentTimeMillis();
         if (dumpStatistics) {
             // We store the statistics as json so it is easy for further processing (e.g. for web based services)
             // TODO This is just a quick solution for storing to one file.
@@ -166,6 +210,7 @@ public class TradeStatisticsManager {
             // Need a more scalable solution later when we get more volume.
             // The flag will only be activated by dedicated nodes, so it should not be too critical for the moment, but needs to
             // get improved. Maybe a LevelDB like DB...? Could be impl. in a headless version only.
+            // Consumers which can process the append-only export of tradeStatisticsJsonExport should use that instead.
             List<TradeStatisticsForJson> list = tradeStatisticsSet.stream().map(TradeStatisticsForJson::new).collect(Collectors.toList());
             list.sort((o1, o2) -> (o1.tradeDate < o2.tradeDate ? 1 : (o1.tradeDate == o2.tradeDate ? 0 : -1)));
             TradeStatisticsForJson[] array = new TradeStatisticsForJson[list.size()];
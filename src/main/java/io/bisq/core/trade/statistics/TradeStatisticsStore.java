@@ -0,0 +1,78 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.trade.statistics;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Holds the trade statistics indexed by offer ID and as time ordered series per currency.
+ * Not thread safe. Only accessed from the user thread.
+ */
+class TradeStatisticsStore {
+    // Both maker and taker might publish the trade statistics, so we use the offer ID to detect duplicates
+    private final Map<String, TradeStatistics2> tradeStatisticsByOfferId = new HashMap<>();
+    // Key is currency code, value is sorted by trade date
+    private final Map<String, NavigableMap<Long, List<TradeStatistics2>>> tradeStatisticsByCurrencyCode = new HashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Returns false if we have already an item with the same offer ID
+    boolean add(TradeStatistics2 tradeStatistics) {
+        if (tradeStatisticsByOfferId.putIfAbsent(tradeStatistics.getOfferId(), tradeStatistics) != null)
+            return false;
+
+        tradeStatisticsByCurrencyCode.computeIfAbsent(tradeStatistics.getCurrencyCode(), k -> new TreeMap<>())
+                .computeIfAbsent(tradeStatistics.getTradeDate().getTime(), k -> new ArrayList<>(1))
+                .add(tradeStatistics);
+        return true;
+    }
+
+    Collection<TradeStatistics2> getAll() {
+        return tradeStatisticsByOfferId.values();
+    }
+
+    int size() {
+        return tradeStatisticsByOfferId.size();
+    }
+
+    // Returns the trade statistics of the given currency with fromDate <= tradeDate < toDate sorted by trade date
+    List<TradeStatistics2> getTradeStatistics(String currencyCode, long fromDate, long toDate) {
+        final NavigableMap<Long, List<TradeStatistics2>> series = tradeStatisticsByCurrencyCode.get(currencyCode);
+        final List<TradeStatistics2> result = new ArrayList<>();
+        if (series != null && fromDate < toDate)
+            series.subMap(fromDate, true, toDate, false).values().forEach(result::addAll);
+        return result;
+    }
+
+    // If there are several trades with the latest trade date we return the first one added
+    @Nullable
+    TradeStatistics2 getLatest(String currencyCode) {
+        final NavigableMap<Long, List<TradeStatistics2>> series = tradeStatisticsByCurrencyCode.get(currencyCode);
+        return series != null && !series.isEmpty() ? series.lastEntry().getValue().get(0) : null;
+    }
+
+    List<TradeStatistics2> getLatestOfAllCurrencies() {
+        final List<TradeStatistics2> result = new ArrayList<>();
+        tradeStatisticsByCurrencyCode.keySet().forEach(currencyCode -> result.add(getLatest(currencyCode)));
+        return result;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.btc;
+
+import io.bisq.common.storage.Storage;
+import org.bitcoinj.core.Coin;
+import org.bitcoinj.crypto.DeterministicKey;
+import org.bitcoinj.crypto.HDKeyDerivation;
+import org.bitcoinj.wallet.Wallet;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({Storage.class, Wallet.class})
+public class AddressEntryListTest {
+
+    @Test
+    public void testIndexesFollowSwapToAvailable() {
+        Wallet wallet = mock(Wallet.class);
+        when(wallet.freshReceiveKey()).thenReturn(createKey(1));
+        when(wallet.getBalance()).thenReturn(Coin.ZERO);
+        //noinspection unchecked
+        AddressEntryList addressEntryList = new AddressEntryList(mock(Storage.class));
+        addressEntryList.onWalletReady(wallet);
+        assertEquals(1, addressEntryList.getAddressEntries(AddressEntry.Context.ARBITRATOR).size());
+
+        AddressEntry offerFunding = addressEntryList.addAddressEntry(
+                new AddressEntry(createKey(2), AddressEntry.Context.OFFER_FUNDING, "offerId"));
+        addressEntryList.addAddressEntry(new AddressEntry(createKey(3), AddressEntry.Context.RESERVED_FOR_TRADE, "offerId"));
+        assertEquals(offerFunding, addressEntryList.getAddressEntry("offerId", AddressEntry.Context.OFFER_FUNDING).get());
+        assertEquals(2, addressEntryList.getAddressEntriesForOfferId("offerId").size());
+        assertEquals(offerFunding, addressEntryList.getAddressEntriesForAddressString(offerFunding.getAddressString()).get(0));
+
+        addressEntryList.swapToAvailable(offerFunding);
+        assertFalse(addressEntryList.getAddressEntry("offerId", AddressEntry.Context.OFFER_FUNDING).isPresent());
+        assertTrue(addressEntryList.getAddressEntry("offerId", AddressEntry.Context.RESERVED_FOR_TRADE).isPresent());
+        assertEquals(1, addressEntryList.getAddressEntries(AddressEntry.Context.AVAILABLE).size());
+        assertTrue(addressEntryList.getAddressEntries(AddressEntry.Context.OFFER_FUNDING).isEmpty());
+        assertEquals(1, addressEntryList.getAddressEntriesForAddressString(offerFunding.getAddressString()).size());
+        assertEquals(AddressEntry.Context.AVAILABLE,
+                addressEntryList.getAddressEntriesForAddressString(offerFunding.getAddressString()).get(0).getContext());
+    }
+
+    private static DeterministicKey createKey(int seed) {
+        byte[] bytes = new byte[32];
+        bytes[0] = (byte) seed;
+        return HDKeyDerivation.createMasterPrivateKey(bytes);
+    }
+}
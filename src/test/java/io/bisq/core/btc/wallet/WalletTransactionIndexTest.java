@@ -0,0 +1,243 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.btc.wallet;
+
+import io.bisq.core.app.BisqEnvironment;
+import org.bitcoinj.core.*;
+import org.bitcoinj.params.UnitTestParams;
+import org.bitcoinj.utils.Threading;
+import org.bitcoinj.wallet.Wallet;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+// Compares the index with a full scan of the wallet, as WalletService did it before the index
+public class WalletTransactionIndexTest {
+    private NetworkParameters params;
+    private Wallet wallet;
+    private WalletTransactionIndex walletTransactionIndex;
+    private Address myAddress;
+    private Address myChangeAddress;
+    private Address otherAddress;
+    private final List<String> txIds = new ArrayList<>();
+    private StoredBlock chainHead;
+
+    @Before
+    @SuppressWarnings("deprecation")
+    public void setup() throws VerificationException {
+        params = UnitTestParams.get();
+        Context.propagate(new Context(params));
+        wallet = new Wallet(params);
+        walletTransactionIndex = new WalletTransactionIndex();
+        wallet.addEventListener(walletTransactionIndex.getInvalidationListener(), Threading.SAME_THREAD);
+
+        myAddress = toBisqAddress(wallet.freshReceiveAddress());
+        myChangeAddress = toBisqAddress(wallet.freshReceiveAddress());
+        otherAddress = toBisqAddress(new ECKey().toAddress(params));
+
+        final Block genesis = params.getGenesisBlock().cloneAsHeader();
+        chainHead = new StoredBlock(genesis, genesis.getWork(), 0);
+    }
+
+    @Test
+    public void testPendingAndConfirmedTxs() throws VerificationException {
+        assertSameAsFullScan();
+
+        final Transaction funding = newFundingTx(Coin.COIN, myAddress);
+        wallet.receivePending(funding, null);
+        assertSameAsFullScan();
+
+        confirm(funding);
+        assertSameAsFullScan();
+
+        // Spends the funding output, so the spend tx is listed for myAddress by its connected output
+        final Transaction spend = newSpendTx(funding.getOutput(0), Coin.CENT, Coin.COIN.subtract(Coin.CENT));
+        wallet.receivePending(spend, null);
+        assertSameAsFullScan();
+        assertEquals(2, walletTransactionIndex.getTransactions(wallet, myAddress).size());
+        assertEquals(Coin.COIN.subtract(Coin.CENT), walletTransactionIndex.getBalance(wallet, myChangeAddress));
+        assertEquals(Coin.ZERO, walletTransactionIndex.getBalance(wallet, myAddress));
+
+        confirm(spend);
+        assertSameAsFullScan();
+    }
+
+    @Test
+    public void testDeadTx() throws VerificationException {
+        final Transaction funding = newFundingTx(Coin.COIN, myAddress);
+        wallet.receivePending(funding, null);
+        confirm(funding);
+        final Transaction spend = newSpendTx(funding.getOutput(0), Coin.CENT, Coin.COIN.subtract(Coin.CENT));
+        wallet.receivePending(spend, null);
+        assertSameAsFullScan();
+
+        // A double spend of the funding output gets confirmed, so the pending spend tx gets dead
+        final Transaction doubleSpend = newSpendTx(funding.getOutput(0), Coin.COIN.subtract(Coin.MILLICOIN), Coin.ZERO);
+        confirm(doubleSpend);
+        assertEquals(TransactionConfidence.ConfidenceType.DEAD, spend.getConfidence().getConfidenceType());
+        assertSameAsFullScan();
+        assertNull(walletTransactionIndex.getTransaction(wallet, spend.getHashAsString()));
+        assertEquals(Coin.ZERO, walletTransactionIndex.getBalance(wallet, myChangeAddress));
+    }
+
+    @Test
+    public void testReorg() throws VerificationException {
+        final Transaction funding = newFundingTx(Coin.COIN, myAddress);
+        wallet.receivePending(funding, null);
+        final StoredBlock splitPoint = chainHead;
+        final StoredBlock fundingBlock = confirm(funding);
+        final Transaction spend = newSpendTx(funding.getOutput(0), Coin.CENT, Coin.COIN.subtract(Coin.CENT));
+        wallet.receivePending(spend, null);
+        final StoredBlock spendBlock = confirm(spend);
+        assertSameAsFullScan();
+
+        // The blocks get replaced by a longer chain which contains none of our txs
+        chainHead = splitPoint;
+        final List<StoredBlock> newBlocks = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            newBlocks.add(0, nextBlock());
+        }
+        wallet.reorganize(splitPoint, Arrays.asList(spendBlock, fundingBlock), newBlocks);
+        assertSameAsFullScan();
+
+        // Our txs get confirmed again in the new chain
+        confirm(funding);
+        confirm(spend);
+        assertSameAsFullScan();
+    }
+
+    @Test
+    public void testGetTransactionReturnsWalletTx() {
+        final Transaction funding = newFundingTx(Coin.COIN, myAddress);
+        wallet.receivePending(funding, null);
+        assertSame(wallet.getTransaction(funding.getHash()),
+                walletTransactionIndex.getTransaction(wallet, funding.getHashAsString()));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Full scan
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void assertSameAsFullScan() {
+        for (Address address : Arrays.asList(myAddress, myChangeAddress, otherAddress)) {
+            assertEquals(getTxIds(getTransactionsByFullScan(address)),
+                    getTxIds(walletTransactionIndex.getTransactions(wallet, address)));
+            assertEquals(getNumTxOutputsByFullScan(address), walletTransactionIndex.getNumTxOutputs(wallet, address));
+            assertEquals(getBalanceByFullScan(address), walletTransactionIndex.getBalance(wallet, address));
+        }
+        for (String txId : txIds) {
+            assertSame(getTransactionByFullScan(txId), walletTransactionIndex.getTransaction(wallet, txId));
+        }
+    }
+
+    private List<Transaction> getTransactionsByFullScan(Address address) {
+        return wallet.getTransactions(false).stream()
+                .filter(tx -> getOutputsWithConnectedOutputs(tx).stream()
+                        .anyMatch(output -> address.equals(WalletService.getAddressFromOutput(output))))
+                .collect(Collectors.toList());
+    }
+
+    private List<TransactionOutput> getOutputsWithConnectedOutputs(Transaction tx) {
+        final List<TransactionOutput> outputs = new ArrayList<>(tx.getOutputs());
+        tx.getInputs().stream()
+                .map(TransactionInput::getConnectedOutput)
+                .filter(Objects::nonNull)
+                .forEach(outputs::add);
+        return outputs;
+    }
+
+    private int getNumTxOutputsByFullScan(Address address) {
+        return (int) wallet.getTransactions(false).stream()
+                .flatMap(tx -> tx.getOutputs().stream())
+                .filter(output -> address.equals(WalletService.getAddressFromOutput(output)))
+                .count();
+    }
+
+    private Coin getBalanceByFullScan(Address address) {
+        Coin balance = Coin.ZERO;
+        for (TransactionOutput output : wallet.calculateAllSpendCandidates()) {
+            if (address.equals(WalletService.getAddressFromOutput(output)))
+                balance = balance.add(output.getValue());
+        }
+        return balance;
+    }
+
+    private Transaction getTransactionByFullScan(String txId) {
+        return wallet.getTransactions(false).stream()
+                .filter(tx -> tx.getHashAsString().equals(txId))
+                .findAny()
+                .orElse(null);
+    }
+
+    private Set<String> getTxIds(Collection<Transaction> transactions) {
+        return transactions.stream().map(Transaction::getHashAsString).collect(Collectors.toSet());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Txs and blocks
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // WalletService resolves the addresses of outputs with the network parameters of BisqEnvironment. We use the
+    // unit test parameters for the wallet so that blocks can be solved quickly.
+    private Address toBisqAddress(Address address) {
+        return new Address(BisqEnvironment.getParameters(), address.getHash160());
+    }
+
+    // Funding from an input which is not ours
+    private Transaction newFundingTx(Coin value, Address address) {
+        final Transaction tx = new Transaction(params);
+        final TransactionOutPoint outPoint = new TransactionOutPoint(params, 0,
+                Sha256Hash.of(("funding" + txIds.size()).getBytes()));
+        tx.addInput(new TransactionInput(params, tx, new byte[0], outPoint));
+        tx.addOutput(value, address);
+        txIds.add(tx.getHashAsString());
+        return tx;
+    }
+
+    // Sends to the other address and the change to myChangeAddress. Signatures are not checked by the wallet.
+    private Transaction newSpendTx(TransactionOutput output, Coin value, Coin change) {
+        final Transaction tx = new Transaction(params);
+        tx.addInput(output);
+        tx.addOutput(value, otherAddress);
+        if (change.isPositive())
+            tx.addOutput(change, myChangeAddress);
+        txIds.add(tx.getHashAsString());
+        return tx;
+    }
+
+    private StoredBlock nextBlock() throws VerificationException {
+        final Block block = chainHead.getHeader().createNextBlock(otherAddress).cloneAsHeader();
+        chainHead = chainHead.build(block);
+        return chainHead;
+    }
+
+    private StoredBlock confirm(Transaction tx) throws VerificationException {
+        final StoredBlock block = nextBlock();
+        wallet.receiveFromBlock(tx, block, AbstractBlockChain.NewBlockType.BEST_CHAIN, 0);
+        wallet.notifyNewBestBlock(block);
+        return block;
+    }
+}
@@ -18,6 +18,12 @@
 package io.bisq.core.dao.blockchain;
 
 import io.bisq.common.proto.persistable.PersistenceProtoResolver;
+import io.bisq.core.dao.blockchain.vo.BsqBlock;
+import io.bisq.core.dao.blockchain.vo.SpentInfo;
+import io.bisq.core.dao.blockchain.vo.Tx;
+import io.bisq.core.dao.blockchain.vo.TxInput;
+import io.bisq.core.dao.blockchain.vo.TxOutput;
+import io.bisq.core.dao.blockchain.vo.util.TxIdIndexTuple;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -25,7 +31,11 @@ import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
+import static java.util.Arrays.asList;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.mock;
 
@@ -37,7 +47,7 @@ public class BsqBlockChainTest {
 
     @Before
     public void setup() {
-        snapshotManager = new SnapshotManager(mock(ReadableBsqBlockChain.class), mock(WritableBsqBlockChain.class), mock(PersistenceProtoResolver.class), mock(File.class));
+        snapshotManager = new SnapshotManager(mock(ReadableBsqBlockChain.class), mock(WritableBsqBlockChain.class), mock(PersistenceProtoResolver.class), mock(File.class), false);
     }
 
     @Test
@@ -69,4 +79,132 @@ public class BsqBlockChainTest {
         assertFalse(snapshotManager.isSnapshotHeight(102, 201, 10));
         assertFalse(snapshotManager.isSnapshotHeight(102, 199, 10));
     }
+
+    @Test
+    public void testGetBlocksToReplay() {
+        // Snapshot at 101, the log contains the blocks since 100
+        final List<BsqBlock> loggedBlocks = asList(newBsqBlock(100, "hash0", "hash99"),
+                newBsqBlock(101, "hash1", "hash0"),
+                newBsqBlock(102, "hash2", "hash1"),
+                newBsqBlock(103, "hash3", "hash2"));
+        assertEquals(asList(loggedBlocks.get(2), loggedBlocks.get(3)),
+                SnapshotManager.getBlocksToReplay(loggedBlocks, 101, "hash1", 100));
+
+        // No snapshot, so we replay from genesis
+        assertEquals(loggedBlocks, SnapshotManager.getBlocksToReplay(loggedBlocks, 0, null, 100));
+
+        // Gap
+        assertEquals(Collections.singletonList(loggedBlocks.get(0)),
+                SnapshotManager.getBlocksToReplay(asList(loggedBlocks.get(0), loggedBlocks.get(2)), 0, null, 100));
+    }
+
+    @Test
+    public void testGetBlocksToReplayAfterReorg() {
+        // Block 102 got replaced by 102b and the snapshot was taken at 102b. The log still contains block 103 of the
+        // orphaned branch.
+        final List<BsqBlock> loggedBlocks = asList(newBsqBlock(102, "hash2b", "hash1"),
+                newBsqBlock(103, "hash3", "hash2"),
+                newBsqBlock(104, "hash4", "hash3"));
+        assertTrue(SnapshotManager.getBlocksToReplay(loggedBlocks, 102, "hash2b", 100).isEmpty());
+
+        // Snapshot at 101, so we replay 102b but not the orphaned block
+        assertEquals(Collections.singletonList(loggedBlocks.get(0)),
+                SnapshotManager.getBlocksToReplay(loggedBlocks, 101, "hash1", 100));
+
+        // Snapshot at 101b, so none of the logged blocks connect
+        assertTrue(SnapshotManager.getBlocksToReplay(loggedBlocks, 101, "hash1b", 100).isEmpty());
+    }
+
+    @Test
+    public void testGetForkHeight() {
+        final List<BsqBlock> connectedBlocks = asList(newBsqBlock(101, "hash1", "hash0"),
+                newBsqBlock(102, "hash2", "hash1"),
+                newBsqBlock(103, "hash3", "hash2"));
+        // Block 103 got replaced by 103b, so we keep the blocks up to 102
+        assertEquals(102, SnapshotManager.getForkHeight(connectedBlocks, newBsqBlock(103, "hash3b", "hash2")));
+        // 104b builds on 103b which we don't know. So 103 is orphaned as well and we step back to 102.
+        assertEquals(102, SnapshotManager.getForkHeight(connectedBlocks, newBsqBlock(104, "hash4b", "hash3b")));
+        // Fork at 101
+        assertEquals(101, SnapshotManager.getForkHeight(connectedBlocks, newBsqBlock(102, "hash2b", "hash1")));
+    }
+
+    @Test
+    public void testUnspentTxOutputIndices() {
+        BsqBlockChain bsqBlockChain = new BsqBlockChain("genesisTxId", 100);
+        TxOutput txOutput1 = getVerifiedTxOutput("tx1", 0, "address1", 101);
+        TxOutput txOutput2 = getVerifiedTxOutput("tx1", 1, "address2", 101);
+        TxOutput txOutput3 = getVerifiedTxOutput("tx2", 0, "address1", 102);
+        bsqBlockChain.addUnspentTxOutput(txOutput1);
+        bsqBlockChain.addUnspentTxOutput(txOutput2);
+        bsqBlockChain.addUnspentTxOutput(txOutput3);
+
+        assertEquals(txOutput2, bsqBlockChain.getSpendableTxOutput(new TxIdIndexTuple("tx1", 1)).get());
+        assertFalse(bsqBlockChain.getSpendableTxOutput(new TxIdIndexTuple("tx1", 2)).isPresent());
+        assertEquals(2, bsqBlockChain.getUnspentTxOutputsForAddress("address1").size());
+        assertEquals(2, bsqBlockChain.getUnspentTxOutputsAtBlockHeight(101).size());
+
+        bsqBlockChain.removeUnspentTxOutput(txOutput1);
+        assertFalse(bsqBlockChain.isTxOutputSpendable("tx1", 0));
+        assertEquals(1, bsqBlockChain.getUnspentTxOutputsForAddress("address1").size());
+        assertEquals(1, bsqBlockChain.getUnspentTxOutputsAtBlockHeight(101).size());
+        assertTrue(bsqBlockChain.getUnspentTxOutputsForAddress("address3").isEmpty());
+    }
+
+    @Test
+    public void testApplyBlocks() {
+        TxOutput txOutput1 = getVerifiedTxOutput("tx1", 0, "address1", 101);
+        Tx tx1 = new Tx("tx1", 101, "hash1", 0, new ArrayList<>(), Collections.singletonList(txOutput1));
+        // Blocks are serialized at the time they are added, so tx1 is still unspent in block 101
+        BsqBlock bsqBlock1 = BsqBlock.fromProto(new BsqBlock(101, "hash1", "hash0", Collections.singletonList(tx1)).toProtoMessage());
+
+        TxInput txInput = new TxInput("tx1", 0);
+        txOutput1.setUnspent(false);
+        txOutput1.setSpentInfo(new SpentInfo(102, "tx2", 0));
+        txInput.setConnectedTxOutput(txOutput1);
+        TxOutput txOutput2 = getVerifiedTxOutput("tx2", 0, "address2", 102);
+        Tx tx2 = new Tx("tx2", 102, "hash2", 0, Collections.singletonList(txInput), Collections.singletonList(txOutput2));
+        BsqBlock bsqBlock2 = BsqBlock.fromProto(new BsqBlock(102, "hash2", "hash1", Collections.singletonList(tx2)).toProtoMessage());
+
+        BsqBlockChain bsqBlockChain = new BsqBlockChain("genesisTxId", 101);
+        bsqBlockChain.applyBlocks(asList(bsqBlock1, bsqBlock2));
+
+        assertEquals(102, bsqBlockChain.getChainHeadHeight());
+        assertEquals(2, bsqBlockChain.getBsqBlocks().size());
+        assertTrue(bsqBlockChain.containsTx("tx1"));
+        assertFalse(bsqBlockChain.isTxOutputSpendable("tx1", 0));
+        assertTrue(bsqBlockChain.isTxOutputSpendable("tx2", 0));
+        assertEquals(1, bsqBlockChain.getSpentTxOutputs().size());
+        assertEquals("tx2", bsqBlockChain.getOptionalTx("tx1").get().getOutputs().get(0).getSpentInfo().getTxId());
+    }
+
+    @Test
+    public void testGetCloneReflectsChanges() {
+        BsqBlockChain bsqBlockChain = new BsqBlockChain("genesisTxId", 101);
+        TxOutput txOutput = getVerifiedTxOutput("tx1", 0, "address1", 101);
+        Tx tx = new Tx("tx1", 101, "hash1", 0, new ArrayList<>(), Collections.singletonList(txOutput));
+        bsqBlockChain.addTxToMap(tx);
+        bsqBlockChain.addUnspentTxOutput(txOutput);
+        bsqBlockChain.addBlock(new BsqBlock(101, "hash1", "hash0", Collections.singletonList(tx)));
+
+        assertTrue(bsqBlockChain.getClone().getTxMap().get("tx1").getOutputs().get(0).isUnspent());
+
+        txOutput.setUnspent(false);
+        bsqBlockChain.removeUnspentTxOutput(txOutput);
+
+        BsqBlockChain clone = bsqBlockChain.getClone();
+        assertFalse(clone.getTxMap().get("tx1").getOutputs().get(0).isUnspent());
+        assertFalse(clone.getBsqBlocks().getFirst().getTxs().get(0).getOutputs().get(0).isUnspent());
+        assertFalse(clone.isTxOutputSpendable("tx1", 0));
+    }
+
+    private TxOutput getVerifiedTxOutput(String txId, int index, String address, int blockHeight) {
+        TxOutput txOutput = new TxOutput(index, 1000, txId, null, address, null, blockHeight);
+        txOutput.setVerified(true);
+        txOutput.setUnspent(true);
+        return txOutput;
+    }
+
+    private BsqBlock newBsqBlock(int height, String hash, String previousBlockHash) {
+        return new BsqBlock(height, hash, previousBlockHash, new ArrayList<>());
+    }
 }
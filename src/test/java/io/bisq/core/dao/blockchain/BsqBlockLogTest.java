@@ -0,0 +1,141 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.dao.blockchain;
+
+import io.bisq.core.dao.blockchain.vo.BsqBlock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BsqBlockLogTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private BsqBlockLog bsqBlockLog;
+
+    @Before
+    public void setup() {
+        bsqBlockLog = new BsqBlockLog(temporaryFolder.getRoot());
+    }
+
+    @Test
+    public void testAppendAndRead() {
+        assertTrue(bsqBlockLog.read().isEmpty());
+
+        append(100, 101);
+        bsqBlockLog.startNewSegment();
+        append(102);
+
+        assertEquals(asList(100, 101, 102), getHeights(bsqBlockLog.read()));
+        assertEquals("hash101", bsqBlockLog.read().get(1).getHash());
+    }
+
+    @Test
+    public void testRemoveSegmentsUpTo() {
+        append(100, 101);
+        bsqBlockLog.startNewSegment();
+        append(102, 103);
+        bsqBlockLog.startNewSegment();
+        append(104);
+
+        // The second segment contains block 103
+        bsqBlockLog.removeSegmentsUpTo(102);
+        assertEquals(asList(102, 103, 104), getHeights(bsqBlockLog.read()));
+    }
+
+    @Test
+    public void testRemoveBlocksAfterReorg() {
+        append(100, 101);
+        bsqBlockLog.startNewSegment();
+        append(102, 103);
+        bsqBlockLog.startNewSegment();
+        append(104);
+
+        // Roll back to a snapshot at 102. The blocks 103 and 104 might be orphaned.
+        bsqBlockLog.removeBlocksAfter(102);
+        assertEquals(asList(100, 101, 102), getHeights(bsqBlockLog.read()));
+
+        // The parser delivers the blocks of the new branch
+        bsqBlockLog.append(new BsqBlock(103, "hash103b", "hash102", new ArrayList<>()));
+        final List<BsqBlock> bsqBlocks = bsqBlockLog.read();
+        assertEquals(asList(100, 101, 102, 103), getHeights(bsqBlocks));
+        assertEquals("hash103b", bsqBlocks.get(3).getHash());
+    }
+
+    @Test
+    public void testPartlyWrittenBlock() throws IOException {
+        append(100, 101);
+        bsqBlockLog.read();
+        final File segment = new File(new File(temporaryFolder.getRoot(), "BsqBlockLog"), "BsqBlocks_100");
+        final long completeLength = segment.length();
+
+        // A block which got cut off at a crash: the length prefix and the first bytes of the message
+        try (FileOutputStream outputStream = new FileOutputStream(segment, true)) {
+            outputStream.write(new byte[]{50, 8, 102});
+        }
+
+        final BsqBlockLog restartedBsqBlockLog = new BsqBlockLog(temporaryFolder.getRoot());
+        assertEquals(asList(100, 101), getHeights(restartedBsqBlockLog.read()));
+        assertEquals(completeLength, segment.length());
+
+        // Blocks appended after the restart are not lost
+        restartedBsqBlockLog.append(new BsqBlock(102, "hash102", "hash101", new ArrayList<>()));
+        assertEquals(asList(100, 101, 102), getHeights(new BsqBlockLog(temporaryFolder.getRoot()).read()));
+    }
+
+    @Test
+    public void testPartlyWrittenFirstBlockOfSegment() throws IOException {
+        append(100);
+        bsqBlockLog.read();
+        final File segment = new File(new File(temporaryFolder.getRoot(), "BsqBlockLog"), "BsqBlocks_101");
+        try (FileOutputStream outputStream = new FileOutputStream(segment)) {
+            outputStream.write(new byte[]{50, 8, 101});
+        }
+
+        // After the restart the block gets appended to a new segment with the same name
+        final BsqBlockLog restartedBsqBlockLog = new BsqBlockLog(temporaryFolder.getRoot());
+        assertEquals(Collections.singletonList(100), getHeights(restartedBsqBlockLog.read()));
+        assertFalse(segment.exists());
+        restartedBsqBlockLog.append(new BsqBlock(101, "hash101", "hash100", new ArrayList<>()));
+        assertEquals(asList(100, 101), getHeights(new BsqBlockLog(temporaryFolder.getRoot()).read()));
+    }
+
+    private void append(int... heights) {
+        for (int height : heights) {
+            bsqBlockLog.append(new BsqBlock(height, "hash" + height, "hash" + (height - 1), new ArrayList<>()));
+        }
+    }
+
+    private List<Integer> getHeights(List<BsqBlock> bsqBlocks) {
+        return bsqBlocks.stream().map(BsqBlock::getHeight).collect(Collectors.toList());
+    }
+}
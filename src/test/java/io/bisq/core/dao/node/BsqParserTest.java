@@ -0,0 +1,94 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.dao.node;
+
+import io.bisq.core.dao.blockchain.ReadableBsqBlockChain;
+import io.bisq.core.dao.blockchain.vo.Tx;
+import io.bisq.core.dao.blockchain.vo.TxInput;
+import io.bisq.core.dao.node.consensus.BsqBlockController;
+import io.bisq.core.dao.node.consensus.BsqTxController;
+import io.bisq.core.dao.node.consensus.GenesisTxController;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class BsqParserTest {
+
+    @Test
+    public void testFindBsqTxsOrdersByDependencyLayers() {
+        BsqTxController bsqTxController = mock(BsqTxController.class);
+        when(bsqTxController.isBsqTx(anyInt(), any(Tx.class))).thenReturn(true);
+        ReadableBsqBlockChain readableBsqBlockChain = mock(ReadableBsqBlockChain.class);
+        when(readableBsqBlockChain.hasUnspentTxOutputs(anyString())).thenReturn(true);
+        BsqParser bsqParser = getBsqParser(bsqTxController, readableBsqBlockChain);
+
+        // tx3 spends tx4 and tx1, tx4 spends tx2, tx2 spends tx1, tx5 spends an output of a previous block
+        List<Tx> txs = asList(getTx("tx1", "prevBlockTx"),
+                getTx("tx3", "tx4", "tx1"),
+                getTx("tx4", "tx2"),
+                getTx("tx2", "tx1"),
+                getTx("tx5", "prevBlockTx"));
+
+        List<Tx> bsqTxsInBlock = new ArrayList<>();
+        bsqParser.findBsqTxs(bsqTxsInBlock, txs, 100);
+
+        assertEquals(asList("tx1", "tx5", "tx2", "tx4", "tx3"),
+                bsqTxsInBlock.stream().map(Tx::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testFindBsqTxsSkipsTxsWithoutBsqInputs() {
+        BsqTxController bsqTxController = mock(BsqTxController.class);
+        when(bsqTxController.isBsqTx(anyInt(), any(Tx.class))).thenReturn(true);
+        ReadableBsqBlockChain readableBsqBlockChain = mock(ReadableBsqBlockChain.class);
+        when(readableBsqBlockChain.hasUnspentTxOutputs("bsqTx")).thenReturn(true);
+        BsqParser bsqParser = getBsqParser(bsqTxController, readableBsqBlockChain);
+
+        Tx bsqTx = getTx("tx1", "btcTx", "bsqTx");
+        Tx btcTx = getTx("tx2", "btcTx");
+        List<Tx> bsqTxsInBlock = new ArrayList<>();
+        bsqParser.findBsqTxs(bsqTxsInBlock, asList(bsqTx, btcTx), 100);
+
+        assertEquals(asList(bsqTx), bsqTxsInBlock);
+        verify(bsqTxController, never()).isBsqTx(anyInt(), eq(btcTx));
+    }
+
+    private BsqParser getBsqParser(BsqTxController bsqTxController, ReadableBsqBlockChain readableBsqBlockChain) {
+        return new BsqParser(mock(BsqBlockController.class), mock(GenesisTxController.class), bsqTxController,
+                readableBsqBlockChain) {
+        };
+    }
+
+    private Tx getTx(String txId, String... connectedTxIds) {
+        List<TxInput> inputs = new ArrayList<>();
+        for (String connectedTxId : connectedTxIds) {
+            inputs.add(new TxInput(connectedTxId, 0));
+        }
+        return new Tx(txId, 100, "blockHash", 0, inputs, new ArrayList<>());
+    }
+}
@@ -0,0 +1,105 @@
+package io.bisq.core.dao.node.full.network;
+
+import io.bisq.core.dao.blockchain.BsqBlockChain;
+import io.bisq.core.dao.blockchain.vo.BsqBlock;
+import io.bisq.core.dao.blockchain.vo.Tx;
+import io.bisq.core.dao.blockchain.vo.TxInput;
+import io.bisq.core.dao.blockchain.vo.TxOutput;
+import io.bisq.generated.protobuffer.PB;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class SerializedBlocksCacheTest {
+    private static final int GENESIS_HEIGHT = 100;
+    private static final int NUM_BLOCKS = 2000;
+
+    private BsqBlockChain bsqBlockChain;
+    private SerializedBlocksCache serializedBlocksCache;
+
+    @Before
+    public void setup() {
+        bsqBlockChain = new BsqBlockChain("genesisTxId", GENESIS_HEIGHT);
+        for (int height = GENESIS_HEIGHT; height < GENESIS_HEIGHT + NUM_BLOCKS; height++) {
+            addBlock(height);
+        }
+        serializedBlocksCache = new SerializedBlocksCache(bsqBlockChain);
+    }
+
+    @Test
+    public void testGetSerializedBlocksFrom() {
+        List<PB.BsqBlock> serializedBlocks = serializedBlocksCache.getSerializedBlocksFrom(GENESIS_HEIGHT + NUM_BLOCKS - 10);
+        assertEquals(10, serializedBlocks.size());
+        assertEquals(GENESIS_HEIGHT + NUM_BLOCKS - 10, serializedBlocks.get(0).getHeight());
+        assertSame(serializedBlocks, serializedBlocksCache.getSerializedBlocksFrom(GENESIS_HEIGHT + NUM_BLOCKS - 10));
+
+        // A new block invalidates the cached ranges
+        addBlock(GENESIS_HEIGHT + NUM_BLOCKS);
+        assertEquals(11, serializedBlocksCache.getSerializedBlocksFrom(GENESIS_HEIGHT + NUM_BLOCKS - 10).size());
+    }
+
+    @Test
+    public void testReorgToSameHeight() {
+        final int chainHeadHeight = GENESIS_HEIGHT + NUM_BLOCKS - 1;
+        assertEquals("hash" + chainHeadHeight,
+                serializedBlocksCache.getSerializedBlocksFrom(chainHeadHeight).get(0).getHash());
+
+        // The chain head gets replaced by another block at the same height
+        BsqBlockChain reorgedBsqBlockChain = new BsqBlockChain("genesisTxId", GENESIS_HEIGHT);
+        for (int height = GENESIS_HEIGHT; height < chainHeadHeight; height++) {
+            addBlock(reorgedBsqBlockChain, height, "hash" + height);
+        }
+        addBlock(reorgedBsqBlockChain, chainHeadHeight, "reorgedHash" + chainHeadHeight);
+        bsqBlockChain.applySnapshot(reorgedBsqBlockChain);
+
+        assertEquals(chainHeadHeight, bsqBlockChain.getChainHeadHeight());
+        assertEquals("reorgedHash" + chainHeadHeight,
+                serializedBlocksCache.getSerializedBlocksFrom(chainHeadHeight).get(0).getHash());
+    }
+
+    // A wave of lite nodes requesting blocks at startup. Requests with the same start height are served with the
+    // same serialized blocks.
+    @Test
+    public void testConcurrentRequests() throws Exception {
+        final int numRequests = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(50);
+        try {
+            List<Future<List<PB.BsqBlock>>> futures = new ArrayList<>();
+            for (int i = 0; i < numRequests; i++) {
+                // Most lite nodes are a few blocks behind, some start from genesis
+                final int fromBlockHeight = i % 10 == 0 ? GENESIS_HEIGHT : GENESIS_HEIGHT + NUM_BLOCKS - 1 - i % 5;
+                futures.add(executor.submit(() -> serializedBlocksCache.getSerializedBlocksFrom(fromBlockHeight)));
+            }
+            Map<Integer, List<PB.BsqBlock>> serializedBlocksBySize = new HashMap<>();
+            for (int i = 0; i < numRequests; i++) {
+                final int expectedSize = i % 10 == 0 ? NUM_BLOCKS : 1 + i % 5;
+                final List<PB.BsqBlock> serializedBlocks = futures.get(i).get();
+                assertEquals(expectedSize, serializedBlocks.size());
+                assertEquals(GENESIS_HEIGHT + NUM_BLOCKS - expectedSize, serializedBlocks.get(0).getHeight());
+                assertSame(serializedBlocksBySize.computeIfAbsent(expectedSize, k -> serializedBlocks), serializedBlocks);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void addBlock(int height) {
+        addBlock(bsqBlockChain, height, "hash" + height);
+    }
+
+    private void addBlock(BsqBlockChain bsqBlockChain, int height, String hash) {
+        TxOutput txOutput = new TxOutput(0, 1000, "tx" + height, null, "address", null, height);
+        Tx tx = new Tx("tx" + height, height, "hash" + height, 0,
+                Collections.singletonList(new TxInput("tx" + (height - 1), 0)),
+                Collections.singletonList(txOutput));
+        bsqBlockChain.addBlock(new BsqBlock(height, hash, "hash" + (height - 1),
+                Collections.singletonList(tx)));
+    }
+}
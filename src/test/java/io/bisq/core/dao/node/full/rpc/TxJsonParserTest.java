@@ -0,0 +1,132 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.dao.node.full.rpc;
+
+import com.neemre.btcdcli4j.core.domain.Block;
+import io.bisq.common.util.Tuple2;
+import io.bisq.core.dao.blockchain.exceptions.BsqBlockchainException;
+import io.bisq.core.dao.blockchain.vo.Tx;
+import io.bisq.core.dao.blockchain.vo.TxOutput;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+
+public class TxJsonParserTest {
+    // Responses as delivered by Bitcoin Core, in reverse order of the request
+    private static final String BATCH_RESPONSE = "[" +
+            "{\"result\":{\"txid\":\"tx2\",\"version\":1," +
+            "\"vin\":[{\"txid\":\"tx1\",\"vout\":0,\"scriptSig\":{\"asm\":\"\",\"hex\":\"\"},\"sequence\":4294967295}]," +
+            "\"vout\":[{\"value\":0.00012345,\"n\":0,\"scriptPubKey\":{\"asm\":\"OP_DUP\",\"hex\":\"76\",\"reqSigs\":1," +
+            "\"type\":\"pubkeyhash\",\"addresses\":[\"address2\"]}}," +
+            "{\"value\":0.0,\"n\":1,\"scriptPubKey\":{\"asm\":\"OP_RETURN 0a0b\",\"hex\":\"6a020a0b\",\"type\":\"nulldata\"}}]," +
+            "\"blockhash\":\"blockHash\",\"confirmations\":1,\"time\":1500000000,\"blocktime\":1500000000}," +
+            "\"error\":null,\"id\":\"1\"}," +
+            "{\"result\":{\"txid\":\"tx1\",\"version\":1," +
+            "\"vin\":[{\"coinbase\":\"03\",\"sequence\":4294967295}]," +
+            "\"vout\":[{\"value\":12.5,\"n\":0,\"scriptPubKey\":{\"asm\":\"OP_DUP\",\"hex\":\"76\",\"reqSigs\":1," +
+            "\"type\":\"pubkeyhash\",\"addresses\":[\"address1\"]}}]," +
+            "\"blockhash\":\"blockHash\",\"confirmations\":1,\"time\":1500000000,\"blocktime\":1500000000}," +
+            "\"error\":null,\"id\":\"0\"}" +
+            "]";
+
+    @Test
+    public void testGetRawTransactionBatchRequest() throws IOException {
+        String request = new String(TxJsonParser.getGetRawTransactionBatchRequest(asList("tx1", "tx2")), StandardCharsets.UTF_8);
+        assertEquals("[{\"jsonrpc\":\"1.0\",\"id\":\"0\",\"method\":\"getrawtransaction\",\"params\":[\"tx1\",1]}," +
+                "{\"jsonrpc\":\"1.0\",\"id\":\"1\",\"method\":\"getrawtransaction\",\"params\":[\"tx2\",1]}]", request);
+    }
+
+    @Test
+    public void testParseGetRawTransactionBatchResponse() throws IOException, BsqBlockchainException {
+        List<Tx> txs = new TxJsonParser(false).parseGetRawTransactionBatchResponse(
+                new ByteArrayInputStream(BATCH_RESPONSE.getBytes(StandardCharsets.UTF_8)), 2, 100);
+
+        assertEquals(2, txs.size());
+        Tx tx1 = txs.get(0);
+        assertEquals("tx1", tx1.getId());
+        assertEquals(100, tx1.getBlockHeight());
+        assertEquals("blockHash", tx1.getBlockHash());
+        assertEquals(1500000000000L, tx1.getTime());
+        // coinbase inputs are ignored
+        assertTrue(tx1.getInputs().isEmpty());
+        assertEquals(1250000000L, tx1.getOutputs().get(0).getValue());
+
+        Tx tx2 = txs.get(1);
+        assertEquals("tx2", tx2.getId());
+        assertEquals("tx1", tx2.getInputs().get(0).getTxId());
+        assertEquals(0, tx2.getInputs().get(0).getTxOutputIndex());
+        TxOutput txOutput = tx2.getOutputs().get(0);
+        assertEquals(12345L, txOutput.getValue());
+        assertEquals("address2", txOutput.getAddress());
+        assertEquals("tx2", txOutput.getTxId());
+        assertNull(txOutput.getOpReturnData());
+        assertNull(txOutput.getPubKeyScript());
+        TxOutput opReturnOutput = tx2.getOutputs().get(1);
+        assertArrayEquals(new byte[]{0x0a, 0x0b}, opReturnOutput.getOpReturnData());
+        assertNull(opReturnOutput.getAddress());
+    }
+
+    @Test(expected = BsqBlockchainException.class)
+    public void testParseGetRawTransactionBatchResponseWithError() throws IOException, BsqBlockchainException {
+        String response = "[{\"result\":null,\"error\":{\"code\":-5,\"message\":\"No such transaction\"},\"id\":\"0\"}]";
+        new TxJsonParser(false).parseGetRawTransactionBatchResponse(
+                new ByteArrayInputStream(response.getBytes(StandardCharsets.UTF_8)), 1, 100);
+    }
+
+    @Test
+    public void testParseGetBlockResponse() throws IOException, BsqBlockchainException {
+        String response = "{\"result\":{\"hash\":\"blockHash\",\"confirmations\":1,\"height\":100," +
+                "\"tx\":[{\"txid\":\"tx1\",\"vin\":[{\"coinbase\":\"03\"}]," +
+                "\"vout\":[{\"value\":12.5,\"n\":0,\"scriptPubKey\":{\"asm\":\"OP_DUP\",\"hex\":\"76\"," +
+                "\"type\":\"pubkeyhash\",\"address\":\"address1\"}}]}]," +
+                "\"time\":1500000000,\"previousblockhash\":\"previousBlockHash\"},\"error\":null,\"id\":\"0\"}";
+        Tuple2<Block, List<Tx>> blockWithTxs = new TxJsonParser(false).parseGetBlockResponse(
+                new ByteArrayInputStream(response.getBytes(StandardCharsets.UTF_8)), 100);
+
+        assertNotNull(blockWithTxs);
+        assertEquals("blockHash", blockWithTxs.first.getHash());
+        assertEquals("previousBlockHash", blockWithTxs.first.getPreviousBlockHash());
+        assertEquals(asList("tx1"), blockWithTxs.first.getTx());
+        Tx tx = blockWithTxs.second.get(0);
+        assertEquals("blockHash", tx.getBlockHash());
+        assertEquals(1500000000000L, tx.getTime());
+        assertEquals("address1", tx.getOutputs().get(0).getAddress());
+    }
+
+    @Test
+    public void testParseGetBlockResponseOfOldNode() throws IOException, BsqBlockchainException {
+        // Nodes not supporting verbosity 2 respond with an error
+        String response = "{\"result\":null,\"error\":{\"code\":-1,\"message\":\"JSON value is not a boolean as expected\"},\"id\":\"0\"}";
+        assertNull(new TxJsonParser(false).parseGetBlockResponse(
+                new ByteArrayInputStream(response.getBytes(StandardCharsets.UTF_8)), 100));
+    }
+
+    @Test(expected = BsqBlockchainException.class)
+    public void testParseGetBlockResponseWithOtherError() throws IOException, BsqBlockchainException {
+        // Errors not related to the verbosity must not disable the getblock requests with verbosity 2
+        String response = "{\"result\":null,\"error\":{\"code\":-1,\"message\":\"Block not available (pruned data)\"},\"id\":\"0\"}";
+        new TxJsonParser(false).parseGetBlockResponse(
+                new ByteArrayInputStream(response.getBytes(StandardCharsets.UTF_8)), 100);
+    }
+}
@@ -0,0 +1,40 @@
+package io.bisq.core.filter;
+
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+
+public class CompiledFilterTest {
+
+    @Test
+    public void testCompiledFilter() {
+        PaymentAccountFilter ibanFilter = new PaymentAccountFilter("SEPA", "getIban", "iban1");
+        Filter filter = new Filter(asList("offer1", "offer2"),
+                asList("abc.onion:9999"),
+                asList(ibanFilter, new PaymentAccountFilter("SEPA", "getBic", "bic1"),
+                        new PaymentAccountFilter("OK_PAY", "getAccountNr", "account1")),
+                asList("EUR"),
+                null,
+                null,
+                null,
+                null,
+                false,
+                null);
+        CompiledFilter compiledFilter = new CompiledFilter(filter);
+
+        assertTrue(compiledFilter.isOfferIdBanned("offer2"));
+        assertFalse(compiledFilter.isOfferIdBanned("offer3"));
+        assertTrue(compiledFilter.isNodeAddressBanned("abc.onion:9999"));
+        assertTrue(compiledFilter.isCurrencyBanned("EUR"));
+        assertFalse(compiledFilter.isCurrencyBanned("USD"));
+        // bannedPaymentMethods is null for filters of old versions
+        assertFalse(compiledFilter.isPaymentMethodBanned("SEPA"));
+
+        assertEquals(2, compiledFilter.getBannedPaymentAccounts("SEPA").size());
+        assertEquals(ibanFilter, compiledFilter.getBannedPaymentAccounts("SEPA").get("getIban").get("iban1"));
+        assertEquals(Collections.emptyMap(), compiledFilter.getBannedPaymentAccounts("PERFECT_MONEY"));
+    }
+}
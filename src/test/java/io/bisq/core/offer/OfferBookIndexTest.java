@@ -0,0 +1,91 @@
+package io.bisq.core.offer;
+
+import io.bisq.core.provider.price.MarketPrice;
+import io.bisq.core.provider.price.PriceFeedService;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({OfferPayload.class, PriceFeedService.class})
+public class OfferBookIndexTest {
+
+    @Test
+    public void testGetBestOffers() {
+        PriceFeedService priceFeedService = mock(PriceFeedService.class);
+        when(priceFeedService.getMarketPrice("EUR"))
+                .thenReturn(new MarketPrice("EUR", 5000, Instant.now().getEpochSecond(), true));
+
+        OfferBookIndex offerBookIndex = new OfferBookIndex();
+        offerBookIndex.add(getOffer("bid1", OfferPayload.Direction.BUY, 4900_0000L, 0, "SEPA", priceFeedService));
+        offerBookIndex.add(getOffer("bid2", OfferPayload.Direction.BUY, 4800_0000L, 0, "SEPA", priceFeedService));
+        // market based price of 4950
+        offerBookIndex.add(getOffer("bid3", OfferPayload.Direction.BUY, 0, 0.01, "SEPA", priceFeedService));
+        offerBookIndex.add(getOffer("ask1", OfferPayload.Direction.SELL, 5100_0000L, 0, "SEPA", priceFeedService));
+        offerBookIndex.add(getOffer("ask2", OfferPayload.Direction.SELL, 5050_0000L, 0, "OKPAY", priceFeedService));
+
+        assertEquals(asList("bid3", "bid1", "bid2"), getIds(offerBookIndex.getBestOffers("EUR", OfferPayload.Direction.BUY, 5)));
+        assertEquals(asList("ask2"), getIds(offerBookIndex.getBestOffers("EUR", OfferPayload.Direction.SELL, 1)));
+        assertTrue(offerBookIndex.getBestOffers("USD", OfferPayload.Direction.SELL, 1).isEmpty());
+        assertEquals(4, offerBookIndex.getOffersForPaymentMethod("SEPA").size());
+
+        offerBookIndex.remove("bid3");
+        assertEquals(asList("bid1", "bid2"), getIds(offerBookIndex.getBestOffers("EUR", OfferPayload.Direction.BUY, 5)));
+        assertEquals(3, offerBookIndex.getOffersForPaymentMethod("SEPA").size());
+        assertNull(offerBookIndex.get("bid3"));
+    }
+
+    @Test
+    public void testAddSamePayloadReusesOffer() {
+        OfferBookIndex offerBookIndex = new OfferBookIndex();
+        Offer offer = getOffer("bid1", OfferPayload.Direction.BUY, 4900_0000L, 0, "SEPA", null);
+        assertSame(offer, offerBookIndex.add(offer));
+        assertSame(offer, offerBookIndex.add(new Offer(offer.getOfferPayload())));
+        assertEquals(1, offerBookIndex.getOffers().size());
+    }
+
+    @Test
+    public void testRemoveOfferWithChangedState() {
+        OfferBookIndex offerBookIndex = new OfferBookIndex();
+        Offer offer = getOffer("bid1", OfferPayload.Direction.BUY, 4900_0000L, 0, "SEPA", null);
+        offerBookIndex.add(offer);
+        // Changes the hashCode of the offer
+        offer.setState(Offer.State.AVAILABLE);
+        offer.setErrorMessage("error");
+
+        assertSame(offer, offerBookIndex.remove("bid1"));
+        assertTrue(offerBookIndex.getOffersForPaymentMethod("SEPA").isEmpty());
+        assertTrue(offerBookIndex.getBestOffers("EUR", OfferPayload.Direction.BUY, 1).isEmpty());
+    }
+
+    private Offer getOffer(String id, OfferPayload.Direction direction, long price, double marketPriceMargin,
+                           String paymentMethodId, PriceFeedService priceFeedService) {
+        OfferPayload payload = mock(OfferPayload.class);
+        when(payload.getId()).thenReturn(id);
+        when(payload.getDirection()).thenReturn(direction);
+        when(payload.getPrice()).thenReturn(price);
+        when(payload.getMarketPriceMargin()).thenReturn(marketPriceMargin);
+        when(payload.isUseMarketBasedPrice()).thenReturn(price == 0);
+        when(payload.getBaseCurrencyCode()).thenReturn("BTC");
+        when(payload.getCounterCurrencyCode()).thenReturn("EUR");
+        when(payload.getPaymentMethodId()).thenReturn(paymentMethodId);
+
+        Offer offer = new Offer(payload);
+        offer.setPriceFeedService(priceFeedService);
+        return offer;
+    }
+
+    private List<String> getIds(List<Offer> offers) {
+        return offers.stream().map(Offer::getId).collect(Collectors.toList());
+    }
+}
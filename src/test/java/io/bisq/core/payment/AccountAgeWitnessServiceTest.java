@@ -1,7 +1,14 @@
 package io.bisq.core.payment;
 
 import io.bisq.common.crypto.CryptoException;
+import io.bisq.common.crypto.Hash;
 import io.bisq.common.crypto.Sig;
+import io.bisq.common.util.Utilities;
+import io.bisq.core.offer.Offer;
+import io.bisq.network.p2p.P2PService;
+import io.bisq.network.p2p.storage.P2PDataStorage;
+import io.bisq.network.p2p.storage.PersistableNetworkPayloadCollection;
+import io.bisq.network.p2p.storage.payload.PersistableNetworkPayload;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.After;
 import org.junit.Before;
@@ -13,11 +20,11 @@ import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.PublicKey;
 import java.security.cert.CertificateException;
-import java.util.Date;
-import java.util.GregorianCalendar;
+import java.util.*;
 
-import static org.junit.Assert.assertFalse;
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 /*
  * This file is part of Bisq.
@@ -40,10 +47,17 @@ public class AccountAgeWitnessServiceTest {
     private PublicKey publicKey;
     private KeyPair keypair;
     private AccountAgeWitnessService service;
+    private final Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> persistableNetworkPayloadMap = new HashMap<>();
 
     @Before
     public void setup() throws CertificateException, NoSuchAlgorithmException, KeyStoreException, IOException, CryptoException {
-        service = new AccountAgeWitnessService(null, null, null);
+        P2PDataStorage p2PDataStorage = mock(P2PDataStorage.class);
+        PersistableNetworkPayloadCollection persistableNetworkPayloadCollection = mock(PersistableNetworkPayloadCollection.class);
+        when(persistableNetworkPayloadCollection.getMap()).thenReturn(persistableNetworkPayloadMap);
+        when(p2PDataStorage.getPersistableNetworkPayloadCollection()).thenReturn(persistableNetworkPayloadCollection);
+        P2PService p2PService = mock(P2PService.class);
+        when(p2PService.getP2PDataStorage()).thenReturn(p2PDataStorage);
+        service = new AccountAgeWitnessService(null, p2PService, null);
         keypair = Sig.generateKeyPair();
         publicKey = keypair.getPublic();
     }
@@ -85,4 +99,66 @@ public class AccountAgeWitnessServiceTest {
         assertFalse(service.verifySignature(publicKey, new byte[]{0x02}, new byte[]{0x04}, errorMessage -> {
         }));
     }
+
+    @Test
+    public void testGetSha256Ripemd160hash() {
+        byte[] ageWitnessInputData = "iban".getBytes();
+        byte[] salt = new byte[32];
+        byte[] pubKey = publicKey.getEncoded();
+        assertArrayEquals(Hash.getSha256Ripemd160hash(Utilities.concatenateByteArrays(ageWitnessInputData,
+                Utilities.concatenateByteArrays(salt, pubKey))),
+                AccountAgeWitnessService.getSha256Ripemd160hash(ageWitnessInputData, salt, pubKey));
+    }
+
+    @Test
+    public void testGetMakersAccountAge() {
+        byte[] hash = AccountAgeWitnessService.getSha256Ripemd160hash("known".getBytes());
+        String hashAsHex = Utilities.bytesAsHexString(hash);
+        Offer offer = mock(Offer.class);
+        when(offer.getAccountAgeWitnessHashAsHex()).thenReturn(Optional.of(hashAsHex));
+        Date now = new Date();
+
+        // Unknown hash is cached as unknown until we add the witness
+        assertEquals(-1L, service.getMakersAccountAge(offer, now));
+        addWitness(new AccountAgeWitness(hash, now.getTime() - 1000));
+        assertEquals(1000L, service.getMakersAccountAge(offer, now));
+    }
+
+    // Lookups of an offer book where only half of the makers have a known witness. Unknown hashes are cached as
+    // unknown until witnesses get added.
+    @Test
+    public void testGetMakersAccountAgeOfOfferBook() {
+        List<Offer> offers = new ArrayList<>();
+        List<byte[]> hashes = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            byte[] hash = AccountAgeWitnessService.getSha256Ripemd160hash(new byte[]{(byte) i, (byte) (i >> 8)});
+            hashes.add(hash);
+            if (i % 2 == 0)
+                addWitness(new AccountAgeWitness(hash, i));
+            Offer offer = mock(Offer.class);
+            when(offer.getAccountAgeWitnessHashAsHex()).thenReturn(Optional.of(Utilities.bytesAsHexString(hash)));
+            offers.add(offer);
+        }
+
+        Date now = new Date();
+        // The second run is served from the cache
+        for (int run = 0; run < 2; run++) {
+            for (int i = 0; i < offers.size(); i++) {
+                assertEquals(i % 2 == 0 ? now.getTime() - i : -1L, service.getMakersAccountAge(offers.get(i), now));
+            }
+        }
+
+        for (int i = 1; i < offers.size(); i += 2) {
+            addWitness(new AccountAgeWitness(hashes.get(i), i));
+        }
+        for (int i = 0; i < offers.size(); i++) {
+            assertEquals(now.getTime() - i, service.getMakersAccountAge(offers.get(i), now));
+        }
+    }
+
+    // As the P2P data storage does when a witness gets added
+    private void addWitness(AccountAgeWitness accountAgeWitness) {
+        persistableNetworkPayloadMap.put(accountAgeWitness.getHashAsByteArray(), accountAgeWitness);
+        service.onWitnessAdded(accountAgeWitness);
+    }
 }
@@ -0,0 +1,51 @@
+package io.bisq.core.provider.price;
+
+import io.bisq.common.util.Tuple2;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class PriceProviderTest {
+
+    @Test
+    public void testParseAllMarketPrices() throws IOException {
+        String json = "{\"data\":[" +
+                "{\"currencyCode\":\"EUR\",\"price\":6500.5,\"timestampSec\":1.51E9,\"provider\":\"BTCA_G\"}," +
+                "{\"currencyCode\":\"XMR\",\"price\":0.0221,\"timestampSec\":1510000001,\"provider\":\"POLO\"}," +
+                "{\"price\":1.0}]," +
+                "\"btcAverageTs\":1510000000,\"poloniexTs\":1.510000001E9,\"coinmarketcapTs\":1510000002," +
+                "\"unknown\":{\"a\":[1,2]}}";
+        Tuple2<Map<String, Long>, Map<String, MarketPrice>> result =
+                PriceProvider.parseAllMarketPrices(new StringReader(json));
+
+        assertEquals(1510000000L, (long) result.first.get("btcAverageTs"));
+        assertEquals(1510000001L, (long) result.first.get("poloniexTs"));
+        assertEquals(1510000002L, (long) result.first.get("coinmarketcapTs"));
+        assertEquals(2, result.second.size());
+        assertEquals(new MarketPrice("EUR", 6500.5, 1510000000L, true), result.second.get("EUR"));
+        assertEquals(new MarketPrice("XMR", 0.0221, 1510000001L, true), result.second.get("XMR"));
+    }
+
+    @Test
+    public void testParseAllMarketPricesSkipsInvalidEntries() throws IOException {
+        String json = "{\"data\":[" +
+                "{\"currencyCode\":\"EUR\",\"price\":null,\"timestampSec\":1510000000}," +
+                "{\"currencyCode\":\"USD\",\"price\":7000.1,\"timestampSec\":1510000000}," +
+                "{\"currencyCode\":\"XMR\",\"price\":\"abc\",\"timestampSec\":1510000001}," +
+                "{\"currencyCode\":\"LTC\",\"price\":0.0088,\"timestampSec\":[1510000002]}," +
+                "null," +
+                "{\"currencyCode\":\"ETH\",\"price\":0.04,\"timestampSec\":1510000003}]," +
+                "\"btcAverageTs\":1510000000}";
+        Tuple2<Map<String, Long>, Map<String, MarketPrice>> result =
+                PriceProvider.parseAllMarketPrices(new StringReader(json));
+
+        assertEquals(1510000000L, (long) result.first.get("btcAverageTs"));
+        assertEquals(2, result.second.size());
+        assertEquals(new MarketPrice("USD", 7000.1, 1510000000L, true), result.second.get("USD"));
+        assertEquals(new MarketPrice("ETH", 0.04, 1510000003L, true), result.second.get("ETH"));
+    }
+}
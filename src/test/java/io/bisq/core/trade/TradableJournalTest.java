@@ -0,0 +1,243 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.trade;
+
+import io.bisq.common.UserThread;
+import io.bisq.common.proto.persistable.PersistenceProtoResolver;
+import io.bisq.core.offer.Offer;
+import io.bisq.generated.protobuffer.PB;
+import javafx.collections.FXCollections;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(TradableList.class)
+public class TradableJournalTest {
+    private static final String FILE_NAME = "OpenOffers";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private TradableList<TestTradable> tradableList;
+    private final Map<String, TestTradable> tradablesById = new LinkedHashMap<>();
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        tradableList = mock(TradableList.class);
+        when(tradableList.getTradableById(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(tradablesById.get((String) invocation.getArguments()[0])));
+        when(tradableList.size()).thenAnswer(invocation -> tradablesById.size());
+        when(tradableList.getList())
+                .thenAnswer(invocation -> FXCollections.observableArrayList(tradablesById.values()));
+    }
+
+    @Test
+    public void testSnapshotAndJournal() {
+        final TradableJournal<TestTradable> journal = newJournal();
+        assertFalse(journal.exists());
+
+        put(new TestTradable("1", 1), new TestTradable("2", 1));
+        journal.writeSnapshot(tradablesById.values());
+        put(new TestTradable("2", 2), new TestTradable("3", 1));
+        journal.writeChanges(asList("2", "3"), tradableList);
+
+        assertEquals(asList("1:1", "2:2", "3:1"), toStrings(journal.readProtos()));
+        // Read by a new instance as at the next startup
+        assertTrue(newJournal().exists());
+        assertEquals(asList("1:1", "2:2", "3:1"), toStrings(newJournal().readProtos()));
+    }
+
+    @Test
+    public void testRemove() {
+        final TradableJournal<TestTradable> journal = newJournal();
+        put(new TestTradable("1", 1), new TestTradable("2", 1));
+        journal.writeSnapshot(tradablesById.values());
+
+        tradablesById.remove("1");
+        journal.writeChanges(Collections.singletonList("1"), tradableList);
+        assertEquals(Collections.singletonList("2:1"), toStrings(journal.readProtos()));
+
+        // Added again after it got removed
+        put(new TestTradable("1", 2));
+        journal.writeChanges(Collections.singletonList("1"), tradableList);
+        assertEquals(asList("2:1", "1:2"), toStrings(journal.readProtos()));
+    }
+
+    @Test
+    public void testCompaction() {
+        final TradableJournal<TestTradable> journal = newJournal();
+        put(new TestTradable("1", 0));
+        journal.writeSnapshot(tradablesById.values());
+
+        for (int version = 1; version <= 100; version++) {
+            put(new TestTradable("1", version));
+            journal.writeChanges(Collections.singletonList("1"), tradableList);
+        }
+        assertEquals(Collections.singletonList("1:100"), toStrings(journal.readProtos()));
+        assertTrue(getJournalFile().exists());
+
+        // The 101st record triggers a new snapshot
+        put(new TestTradable("1", 101));
+        journal.writeChanges(Collections.singletonList("1"), tradableList);
+        assertEquals(Collections.singletonList("1:101"), toStrings(journal.readProtos()));
+        assertFalse(getJournalFile().exists());
+        assertTrue(new File(temporaryFolder.getRoot(), FILE_NAME + "Snapshot").exists());
+    }
+
+    @Test
+    public void testTruncatedTail() throws IOException {
+        final TradableJournal<TestTradable> journal = newJournal();
+        put(new TestTradable("1", 1));
+        journal.writeChanges(Collections.singletonList("1"), tradableList);
+        journal.readProtos();
+        final long completeLength = getJournalFile().length();
+
+        // A record which got cut off at a crash: PUT, then the first bytes of the ID
+        try (FileOutputStream outputStream = new FileOutputStream(getJournalFile(), true)) {
+            outputStream.write(new byte[]{0, 0, 1});
+        }
+
+        final TradableJournal<TestTradable> restartedJournal = newJournal();
+        assertEquals(Collections.singletonList("1:1"), toStrings(restartedJournal.readProtos()));
+        assertEquals(completeLength, getJournalFile().length());
+
+        // Records appended after the restart are not lost
+        put(new TestTradable("2", 1));
+        restartedJournal.writeChanges(Collections.singletonList("2"), tradableList);
+        assertEquals(asList("1:1", "2:1"), toStrings(restartedJournal.readProtos()));
+        assertEquals(asList("1:1", "2:1"), toStrings(newJournal().readProtos()));
+    }
+
+    @Test
+    public void testFlush() {
+        // The user thread never runs the pending write, as if we shut down before the next cycle
+        UserThread.setExecutor(runnable -> {
+        });
+        final TradableJournal<TestTradable> journal = newJournal();
+        put(new TestTradable("1", 1));
+        journal.onTradableChanged("1", tradableList);
+        assertFalse(getJournalFile().exists());
+
+        journal.flush(tradableList);
+        assertEquals(Collections.singletonList("1:1"), toStrings(newJournal().readProtos()));
+
+        // Nothing pending anymore, so a second flush does not append another record
+        final long length = getJournalFile().length();
+        journal.flush(tradableList);
+        assertEquals(length, getJournalFile().length());
+    }
+
+    @Test
+    public void testIsNewerThan() throws IOException {
+        final File persistedFile = temporaryFolder.newFile(FILE_NAME);
+        final TradableJournal<TestTradable> journal = newJournal();
+        put(new TestTradable("1", 1));
+        journal.writeChanges(Collections.singletonList("1"), tradableList);
+        journal.readProtos();
+
+        assertTrue(getJournalFile().setLastModified(2000));
+        assertTrue(persistedFile.setLastModified(1000));
+        assertTrue(journal.isNewerThan(persistedFile));
+        // The whole list has been written after we switched off the journal
+        assertTrue(persistedFile.setLastModified(3000));
+        assertFalse(journal.isNewerThan(persistedFile));
+        assertTrue(journal.isNewerThan(new File(temporaryFolder.getRoot(), "NotExisting")));
+    }
+
+    private TradableJournal<TestTradable> newJournal() {
+        return new TradableJournal<>(temporaryFolder.getRoot(), FILE_NAME, mock(PersistenceProtoResolver.class));
+    }
+
+    private File getJournalFile() {
+        return new File(temporaryFolder.getRoot(), FILE_NAME + "Journal");
+    }
+
+    private void put(TestTradable... tradables) {
+        for (TestTradable tradable : tradables) {
+            tradablesById.put(tradable.getId(), tradable);
+        }
+    }
+
+    // Returns id:version of the tradables
+    private List<String> toStrings(Collection<PB.Tradable> protos) {
+        return protos.stream()
+                .map(proto -> proto.getOpenOffer().getOffer().getOfferPayload())
+                .map(payload -> payload.getId() + ":" + payload.getDate())
+                .collect(Collectors.toList());
+    }
+
+    // We use the date of the offer as version of the tradable
+    private static class TestTradable implements Tradable {
+        private final String id;
+        private final long version;
+
+        TestTradable(String id, long version) {
+            this.id = id;
+            this.version = version;
+        }
+
+        @Override
+        public PB.Tradable toProtoMessage() {
+            return PB.Tradable.newBuilder()
+                    .setOpenOffer(PB.OpenOffer.newBuilder()
+                            .setOffer(PB.Offer.newBuilder()
+                                    .setOfferPayload(PB.OfferPayload.newBuilder()
+                                            .setId(id)
+                                            .setDate(version))))
+                    .build();
+        }
+
+        @Override
+        public Offer getOffer() {
+            return null;
+        }
+
+        @Override
+        public Date getDate() {
+            return new Date(version);
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public String getShortId() {
+            return id;
+        }
+    }
+}
@@ -5,14 +5,15 @@ import io.bisq.core.offer.Offer;
 import io.bisq.core.offer.OfferPayload;
 import io.bisq.core.offer.OpenOffer;
 import io.bisq.generated.protobuffer.PB;
+import mockit.Expectations;
+import mockit.Injectable;
 import mockit.Mocked;
 import mockit.integration.junit4.JMockit;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import static io.bisq.generated.protobuffer.PB.PersistableEnvelope.MessageCase.TRADABLE_LIST;
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 
 /*
  * This file is part of Bisq.
@@ -49,4 +50,27 @@ public class TradableListTest {
         assertTrue(message.getMessageCase().equals(TRADABLE_LIST));
         assertEquals(1, message.getTradableList().getTradableList().size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetTradableById(@Injectable Tradable tradable1, @Injectable Tradable tradable2) {
+        new Expectations() {{
+            tradable1.getId();
+            result = "id1";
+            tradable2.getId();
+            result = "id2";
+        }};
+        Storage<TradableList<Tradable>> storage = new Storage<>(null, null);
+        TradableList<Tradable> tradableList = new TradableList<>(storage, "filename");
+        tradableList.add(tradable1);
+        tradableList.add(tradable2);
+        assertSame(tradable2, tradableList.getTradableById("id2").get());
+
+        tradableList.remove(tradable2);
+        assertFalse(tradableList.getTradableById("id2").isPresent());
+
+        // Changes of the exposed list are reflected as well
+        tradableList.getList().add(tradable2);
+        assertSame(tradable2, tradableList.getTradableById("id2").get());
+        assertSame(tradable1, tradableList.getTradableById("id1").get());
+    }
+}
@@ -0,0 +1,63 @@
+package io.bisq.core.trade.statistics;
+
+import io.bisq.core.offer.OfferPayload;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class CandleAggregatorTest {
+    // 2017-11-06 00:00 UTC, a Monday
+    private static final long MONDAY = 1509926400000L;
+
+    @Test
+    public void testGetStartDate() {
+        assertEquals(MONDAY, CandleInterval.WEEK.getStartDate(MONDAY));
+        assertEquals(MONDAY, CandleInterval.WEEK.getStartDate(MONDAY + TimeUnit.DAYS.toMillis(7) - 1));
+        assertEquals(MONDAY, CandleInterval.DAY.getStartDate(MONDAY + TimeUnit.HOURS.toMillis(23)));
+        assertEquals(MONDAY + TimeUnit.HOURS.toMillis(1), CandleInterval.HOUR.getStartDate(MONDAY + TimeUnit.MINUTES.toMillis(61)));
+    }
+
+    @Test
+    public void testAdd() {
+        CandleAggregator aggregator = new CandleAggregator();
+        // Trades arrive out of order
+        aggregator.add(getTradeStatistics("offer2", MONDAY + 2000, 60000000, 10000000));
+        aggregator.add(getTradeStatistics("offer3", MONDAY + 3000, 40000000, 10000000));
+        aggregator.add(getTradeStatistics("offer1", MONDAY + 1000, 50000000, 20000000));
+
+        Candle candle = aggregator.getCurrentCandle("EUR", CandleInterval.MINUTE);
+        assertNotNull(candle);
+        assertEquals(MONDAY, candle.getStartDate());
+        assertEquals(50000000, candle.getOpen());
+        assertEquals(60000000, candle.getHigh());
+        assertEquals(40000000, candle.getLow());
+        assertEquals(40000000, candle.getClose());
+        assertEquals(40000000, candle.getAmount());
+        assertEquals(20000000, candle.getVolume());
+        assertEquals(50000000, candle.getVwap());
+        assertEquals(3, candle.getNumTrades());
+        assertNull(aggregator.getCurrentCandle("USD", CandleInterval.MINUTE));
+    }
+
+    @Test
+    public void testGetCandles() {
+        CandleAggregator aggregator = new CandleAggregator();
+        aggregator.add(getTradeStatistics("offer1", MONDAY, 50000000, 10000000));
+        aggregator.add(getTradeStatistics("offer2", MONDAY + TimeUnit.HOURS.toMillis(2), 50000000, 10000000));
+        aggregator.add(getTradeStatistics("offer3", MONDAY + TimeUnit.DAYS.toMillis(1), 50000000, 10000000));
+
+        List<Candle> candles = aggregator.getCandles("EUR", CandleInterval.HOUR, MONDAY, MONDAY + TimeUnit.DAYS.toMillis(1));
+        assertEquals(2, candles.size());
+        assertEquals(MONDAY + TimeUnit.HOURS.toMillis(2), candles.get(1).getStartDate());
+        assertEquals(2, aggregator.getCandles("EUR", CandleInterval.DAY, 0, Long.MAX_VALUE).size());
+        assertEquals(3, aggregator.getCurrentCandle("EUR", CandleInterval.WEEK).getNumTrades());
+    }
+
+    private TradeStatistics2 getTradeStatistics(String offerId, long tradeDate, long tradePrice, long tradeAmount) {
+        return new TradeStatistics2(OfferPayload.Direction.BUY, "BTC", "EUR", "SEPA", 0, false, 0,
+                tradeAmount, tradeAmount, offerId, tradePrice, tradeAmount, tradeDate, "depositTxId", new byte[20], null);
+    }
+}
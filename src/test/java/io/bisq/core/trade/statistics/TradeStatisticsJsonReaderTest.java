@@ -0,0 +1,62 @@
+package io.bisq.core.trade.statistics;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TradeStatisticsJsonReaderTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testGetSegmentFileName() {
+        assertEquals("trade_statistics_2017-11-05.json", TradeStatisticsJsonReader.getSegmentFileName(1509926399999L));
+        assertEquals("trade_statistics_2017-11-06.json", TradeStatisticsJsonReader.getSegmentFileName(1509926400000L));
+    }
+
+    @Test
+    public void testRead() throws IOException {
+        File storageDir = temporaryFolder.getRoot();
+        File dir = new File(storageDir, TradeStatisticsJsonReader.DIR_NAME);
+        assertTrue(dir.mkdir());
+        String fileName = "trade_statistics_2017-11-05.json";
+        File segment = new File(dir, fileName);
+        append(segment, "{\"offerId\":\"offer1\"}\n{\"offerId\":\"offer2\"}\n{\"offerId\":\"off");
+
+        TradeStatisticsJsonReader reader = new TradeStatisticsJsonReader(storageDir);
+        List<String> offerIds = new ArrayList<>();
+        Map<String, Long> positions = reader.read(new HashMap<>(), (name, e) -> offerIds.add(e.offerId));
+        // The partly written line is not read
+        assertEquals(asList("offer1", "offer2"), offerIds);
+        assertEquals(42L, (long) positions.get(fileName));
+
+        append(segment, "er3\"}\n");
+        offerIds.clear();
+        positions = reader.read(positions, (name, e) -> offerIds.add(e.offerId));
+        assertEquals(asList("offer3"), offerIds);
+        assertEquals(segment.length(), (long) positions.get(fileName));
+
+        offerIds.clear();
+        reader.read(positions, (name, e) -> offerIds.add(e.offerId));
+        assertTrue(offerIds.isEmpty());
+    }
+
+    private void append(File file, String lines) throws IOException {
+        try (FileOutputStream outputStream = new FileOutputStream(file, true)) {
+            outputStream.write(lines.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
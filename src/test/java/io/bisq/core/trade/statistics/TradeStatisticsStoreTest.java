@@ -0,0 +1,103 @@
+package io.bisq.core.trade.statistics;
+
+import io.bisq.core.offer.OfferPayload;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+
+@Slf4j
+public class TradeStatisticsStoreTest {
+
+    @Test
+    public void testAdd() {
+        TradeStatisticsStore store = new TradeStatisticsStore();
+        assertTrue(store.add(getTradeStatistics("offer1", "EUR", 1000)));
+        // The peer published the same trade with a different trade date
+        assertFalse(store.add(getTradeStatistics("offer1", "EUR", 1001)));
+        assertTrue(store.add(getTradeStatistics("offer2", "EUR", 500)));
+        assertEquals(2, store.size());
+        assertEquals("offer1", store.getLatest("EUR").getOfferId());
+        assertNull(store.getLatest("USD"));
+
+        store.add(getTradeStatistics("offer3", "USD", 200));
+        assertEquals(asList("offer1", "offer3"), getOfferIds(store.getLatestOfAllCurrencies()).stream()
+                .sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testGetTradeStatistics() {
+        TradeStatisticsStore store = new TradeStatisticsStore();
+        store.add(getTradeStatistics("offer3", "EUR", 3000));
+        store.add(getTradeStatistics("offer1", "EUR", 1000));
+        store.add(getTradeStatistics("offer2", "EUR", 2000));
+        store.add(getTradeStatistics("offer4", "USD", 2000));
+
+        assertEquals(asList("offer1", "offer2"), getOfferIds(store.getTradeStatistics("EUR", 1000, 3000)));
+        assertEquals(asList("offer2", "offer3"), getOfferIds(store.getTradeStatistics("EUR", 1500, 5000)));
+        assertTrue(store.getTradeStatistics("EUR", 3000, 1000).isEmpty());
+        assertTrue(store.getTradeStatistics("JPY", 0, 5000).isEmpty());
+    }
+
+    // Loading the trade statistics at startup. Items arrive in no particular order and peers publish the same trades
+    // again.
+    @Test
+    public void testAddMany() {
+        final int numItems = 10_000;
+        TradeStatisticsStore store = new TradeStatisticsStore();
+        for (int i = numItems - 1; i >= 0; i--) {
+            assertTrue(store.add(getTradeStatistics("offer" + i, i % 2 == 0 ? "EUR" : "USD", i)));
+        }
+        for (int i = 0; i < numItems; i += 100) {
+            assertFalse(store.add(getTradeStatistics("offer" + i, "EUR", i + 1)));
+        }
+
+        assertEquals(numItems, store.size());
+        assertEquals("offer" + (numItems - 2), store.getLatest("EUR").getOfferId());
+        assertEquals("offer" + (numItems - 1), store.getLatest("USD").getOfferId());
+        assertEquals(asList("offer100", "offer102", "offer104"), getOfferIds(store.getTradeStatistics("EUR", 100, 106)));
+    }
+
+    // Benchmark of the startup load with a growing trade history. Run it manually, the numbers depend on the machine.
+    @Ignore("Benchmark")
+    @Test
+    public void testLoadTimeBenchmark() {
+        final String[] currencyCodes = {"EUR", "USD", "GBP", "BRL", "XMR", "ETH", "DASH", "LTC"};
+        for (int numItems : new int[]{10_000, 100_000, 1_000_000}) {
+            final List<TradeStatistics2> items = new ArrayList<>(numItems);
+            for (int i = 0; i < numItems; i++) {
+                items.add(getTradeStatistics("offer" + i, currencyCodes[i % currencyCodes.length], (i * 7919L) % numItems));
+            }
+
+            System.gc();
+            final long usedMemoryBefore = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+            final long ts = System.currentTimeMillis();
+            TradeStatisticsStore store = new TradeStatisticsStore();
+            items.forEach(store::add);
+            store.getLatestOfAllCurrencies();
+            final long duration = System.currentTimeMillis() - ts;
+            System.gc();
+            final long usedMemoryAfter = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+
+            assertEquals(numItems, store.size());
+            log.info("Loading {} trade statistics took {} ms. The store uses about {} MB.", numItems, duration,
+                    (usedMemoryAfter - usedMemoryBefore) / 1024 / 1024);
+        }
+    }
+
+    private TradeStatistics2 getTradeStatistics(String offerId, String currencyCode, long tradeDate) {
+        // We pass a hash to avoid the hash calculation
+        return new TradeStatistics2(OfferPayload.Direction.BUY, "BTC", currencyCode, "SEPA", 0, false, 0,
+                10000, 10000, offerId, 50000000, 10000, tradeDate, "depositTxId", new byte[20], null);
+    }
+
+    private List<String> getOfferIds(List<TradeStatistics2> tradeStatistics) {
+        return tradeStatistics.stream().map(TradeStatistics2::getOfferId).collect(Collectors.toList());
+    }
+}